@@ -0,0 +1,86 @@
+#!/usr/bin/env bash
+# Compares how many concurrent /api/news requests the blocking and reactive read paths sustain.
+#
+#   1. Start redis from docker-compose and index a set of articles, e.g. run news-consumer and
+#        news_consumer/bench/ingest-bench.sh produce 100000
+#   2. Build the app:                            mvn package -DskipTests
+#   3. Run both modes at the same settings:      bench/read-bench.sh [scenario]
+#
+# Each mode is started in turn with the same heap (HEAP) and core count (CORES, passed to the JVM as
+# -XX:ActiveProcessorCount and to taskset), then loaded with wrk at each connection count in
+# CONNECTIONS. The page cache is disabled and pages are picked at random, so every request reads
+# Redis. The scenario picks the query:
+#
+#   date      default pubDate sort, reactive end to end
+#   category  pubDate within a category filter, reactive end to end
+#   title     title sort within a category filter, the reactive mode falls back to the blocking
+#             repository on the bounded elastic scheduler
+#
+# Blocking mode holds a Tomcat thread for every request in flight, so it levels off once
+# connections outnumber TOMCAT_THREADS; lower TOMCAT_THREADS to see that point with a local Redis.
+set -euo pipefail
+
+SCENARIO=${1:-date}
+HEAP=${HEAP:-512m}
+CORES=${CORES:-2}
+TOMCAT_THREADS=${TOMCAT_THREADS:-200}
+CONNECTIONS=${CONNECTIONS:-"50 200 800 1600"}
+DURATION=${DURATION:-30s}
+PAGES=${PAGES:-1000}
+CATEGORY=${CATEGORY:-benchmark}
+PORT=${PORT:-8003}
+REDIS_HOST=${REDIS_HOST:-localhost}
+
+cd "$(dirname "$0")/.."
+JAR=$(ls target/news_app-*.jar | grep -v '\.original$' | head -n 1)
+LUA=$(mktemp)
+trap 'rm -f "$LUA"' EXIT
+
+case "$SCENARIO" in
+  date) QUERY="" ;;
+  category) QUERY="&category=$CATEGORY" ;;
+  title) QUERY="&category=$CATEGORY&sort=title,asc" ;;
+  *) echo "usage: $0 [date|category|title]" >&2; exit 1 ;;
+esac
+
+cat > "$LUA" <<EOF
+math.randomseed(os.time())
+request = function()
+  return wrk.format("GET", "/api/news?size=10&page=" .. math.random(0, $PAGES - 1) .. "$QUERY")
+end
+EOF
+
+start_app() {
+  taskset -c "0-$((CORES - 1))" java -Xms"$HEAP" -Xmx"$HEAP" -XX:ActiveProcessorCount="$CORES" -jar "$JAR" \
+    --server.port="$PORT" --spring.data.redis.host="$REDIS_HOST" \
+    --server.tomcat.threads.max="$TOMCAT_THREADS" \
+    --app.news.read-mode="$1" --app.news.cache.max-size=0 >"target/read-bench-$1.log" 2>&1 &
+  APP_PID=$!
+  until curl -fs "http://localhost:$PORT/api/news?size=1" >/dev/null; do
+    sleep 1
+  done
+}
+
+run() {
+  local mode=$1 connections=$2
+  wrk -t"$CORES" -c"$connections" -d"$DURATION" --timeout 5s --latency -s "$LUA" "http://localhost:$PORT" \
+    | awk -v mode="$mode" -v c="$connections" '
+        /^ +99%/ { p99 = $2 }
+        /Non-2xx/ { errors += $NF }
+        /Socket errors/ { gsub(/,/, ""); errors += $4 + $6 + $8 + $10 }
+        /Requests\/sec/ { rps = $2 }
+        END { printf "%-9s %11d %12.0f %10s %8d\n", mode, c, rps, p99, errors }'
+}
+
+echo "scenario=$SCENARIO heap=$HEAP cores=$CORES tomcat-threads=$TOMCAT_THREADS duration=$DURATION"
+printf "%-9s %11s %12s %10s %8s\n" mode connections requests/s p99 errors
+for mode in blocking reactive; do
+  start_app "$mode"
+  # Warm up the JIT and the connection pools before measuring
+  wrk -t"$CORES" -c50 -d10s -s "$LUA" "http://localhost:$PORT" >/dev/null
+  for connections in $CONNECTIONS; do
+    run "$mode" "$connections"
+  done
+  kill "$APP_PID"
+  wait "$APP_PID" || true
+done
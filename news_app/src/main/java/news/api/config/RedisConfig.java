@@ -1,22 +1,62 @@
 package news.api.config;
 
-import news.api.dto.NewsArticle;
+import news.api.service.NewsStreamService;
+import news.model.NewsArticle;
+import news.model.codec.ArticleCodec;
+import news.model.codec.ArticleRedisSerializer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
 public class RedisConfig {
 
+  // Article values may be JSON or Smile, whichever the consumer stored them as
+  private final ArticleRedisSerializer articleSerializer =
+      new ArticleRedisSerializer(new ArticleCodec(ArticleCodec.Format.JSON));
+
   @Bean
   public RedisTemplate<String, NewsArticle> redisTemplate(RedisConnectionFactory connectionFactory) {
     RedisTemplate<String, NewsArticle> template = new RedisTemplate<>();
     template.setConnectionFactory(connectionFactory);
     template.setKeySerializer(new StringRedisSerializer());
-    template.setValueSerializer(new Jackson2JsonRedisSerializer<>(NewsArticle.class));
+    template.setValueSerializer(articleSerializer);
     return template;
   }
+
+  // Value template of the reactive read path, same serialization as the blocking one
+  @Bean
+  @ConditionalOnProperty(name = "app.news.read-mode", havingValue = "reactive")
+  public ReactiveRedisTemplate<String, NewsArticle> reactiveRedisTemplate(
+      ReactiveRedisConnectionFactory connectionFactory) {
+    RedisSerializationContext<String, NewsArticle> context = RedisSerializationContext
+        .<String, NewsArticle>newSerializationContext(new StringRedisSerializer())
+        .value(articleSerializer)
+        .build();
+    return new ReactiveRedisTemplate<>(connectionFactory, context);
+  }
+
+  // One shared subscription feeds every SSE client of this instance. NewsStreamService starts it
+  // once the first client connects, so the application still boots while Redis is unreachable.
+  @Bean
+  public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                     NewsStreamService newsStreamService) {
+    RedisMessageListenerContainer container = new RedisMessageListenerContainer() {
+      @Override
+      public boolean isAutoStartup() {
+        return false;
+      }
+    };
+    container.setConnectionFactory(connectionFactory);
+    container.addMessageListener(newsStreamService, new ChannelTopic(NewsStreamService.NEW_ARTICLES_CHANNEL));
+    return container;
+  }
 }
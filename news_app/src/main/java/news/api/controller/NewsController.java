@@ -1,27 +1,175 @@
 package news.api.controller;
 
+import java.util.List;
+import java.util.Locale;
 import lombok.RequiredArgsConstructor;
-import news.api.dto.NewsArticle;
+import news.api.dto.CursorPage;
+import news.api.dto.NewsCursor;
+import news.api.dto.NewsFilter;
 import news.api.service.NewsService;
-import org.springframework.data.domain.Page;
+import news.api.service.RenderedNewsPage;
+import news.model.NewsArticle;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 @RestController
 @RequestMapping("/api/news")
 @RequiredArgsConstructor
 public class NewsController {
 
+  // Same cap Spring Data applies to the page size of offset pagination
+  private static final int MAX_CURSOR_PAGE_SIZE = 2000;
+
   private final NewsService newsService;
 
+  /**
+   * Pages the news feed, optionally restricted to one or more categories. With several
+   * categories, {@code match=any} (default) returns articles in at least one of them and
+   * {@code match=all} only articles in every one of them.
+   *
+   * <p>The body is served pre-encoded (gzip'd when the client accepts it) with a strong ETag per
+   * content coding, and a matching {@code If-None-Match} gets an empty 304.
+   */
   @GetMapping
-  public ResponseEntity<Page<NewsArticle>> getNews(
-      @PageableDefault(size = 10, sort = "pubDate,desc") Pageable pageable) {
-    Page<NewsArticle> newsPage = newsService.getAllNews(pageable);
+  public ResponseEntity<byte[]> getNews(
+      @PageableDefault(size = 10, sort = "pubDate", direction = Sort.Direction.DESC) Pageable pageable,
+      @RequestParam(name = "category", required = false) List<String> categories,
+      @RequestParam(name = "match", defaultValue = "any") String match,
+      @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+      @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+    NewsFilter filter = NewsFilter.of(categories, parseMatchAll(match));
+    return toResponse(newsService.getRenderedNews(pageable, filter), ifNoneMatch, acceptEncoding);
+  }
+
+  /**
+   * Cursor mode of the feed, selected by the presence of the {@code cursor} parameter. An empty
+   * cursor starts from the newest article; each response carries the {@code nextCursor} to pass
+   * back. Slices are read straight from the pubDate index, so they stay stable while new articles
+   * arrive and cost the same at any depth.
+   */
+  @GetMapping(params = "cursor")
+  public ResponseEntity<CursorPage<NewsArticle>> getNewsAfter(
+      @RequestParam(name = "cursor") String cursor,
+      @RequestParam(name = "size", defaultValue = "10") int size,
+      @RequestParam(name = "category", required = false) List<String> categories,
+      @RequestParam(name = "match", defaultValue = "any") String match) {
+    if (size < 1) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "size must be positive");
+    }
+    NewsFilter filter = NewsFilter.of(categories, parseMatchAll(match));
+    CursorPage<NewsArticle> newsPage = newsService.getNewsAfter(
+        parseCursor(cursor), Math.min(size, MAX_CURSOR_PAGE_SIZE), filter);
     return ResponseEntity.ok(newsPage);
   }
+
+  private static NewsCursor parseCursor(String cursor) {
+    if (cursor.isBlank()) {
+      return null;
+    }
+    try {
+      return NewsCursor.decode(cursor);
+    } catch (IllegalArgumentException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", e);
+    }
+  }
+
+  // Shared with the reactive read path so both serve byte-identical responses
+  static ResponseEntity<byte[]> toResponse(RenderedNewsPage newsPage, String ifNoneMatch, String acceptEncoding) {
+    boolean gzip = newsPage.gzip() != null && acceptsGzip(acceptEncoding);
+    String etag = gzip ? newsPage.gzipEtag() : newsPage.etag();
+    if (etagMatches(ifNoneMatch, newsPage.etag())) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+          .eTag(etag)
+          .cacheControl(CacheControl.noCache())
+          .varyBy(HttpHeaders.ACCEPT_ENCODING)
+          .build();
+    }
+
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+        .eTag(etag)
+        .cacheControl(CacheControl.noCache())
+        .varyBy(HttpHeaders.ACCEPT_ENCODING)
+        .contentType(MediaType.APPLICATION_JSON);
+    if (gzip) {
+      return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(newsPage.gzip());
+    }
+    return response.body(newsPage.json());
+  }
+
+  // gzip, x-gzip or * with a non-zero q-value, an explicit gzip entry takes precedence over *
+  static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    Double gzipQuality = null;
+    Double anyQuality = null;
+    for (String element : acceptEncoding.split(",")) {
+      String[] parts = element.split(";");
+      String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+      double quality = 1.0;
+      for (int i = 1; i < parts.length; i++) {
+        String param = parts[i].trim();
+        if (param.regionMatches(true, 0, "q=", 0, 2)) {
+          try {
+            quality = Double.parseDouble(param.substring(2).trim());
+          } catch (NumberFormatException e) {
+            quality = 0;
+          }
+        }
+      }
+      if (coding.equals("gzip") || coding.equals("x-gzip")) {
+        gzipQuality = gzipQuality == null ? quality : Math.max(gzipQuality, quality);
+      } else if (coding.equals("*")) {
+        anyQuality = quality;
+      }
+    }
+    if (gzipQuality != null) {
+      return gzipQuality > 0;
+    }
+    return anyQuality != null && anyQuality > 0;
+  }
+
+  static boolean parseMatchAll(String match) {
+    return switch (match.toLowerCase()) {
+      case "any", "or" -> false;
+      case "all", "and" -> true;
+      default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "match must be 'any' or 'all'");
+    };
+  }
+
+  // Weak comparison as required for If-None-Match, so W/ prefixes added by proxies still match.
+  // Both content codings hold the same JSON, so the tag of either one matches
+  static boolean etagMatches(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    for (String candidate : ifNoneMatch.split(",")) {
+      String tag = candidate.trim();
+      if (tag.equals("*")) {
+        return true;
+      }
+      if (tag.startsWith("W/")) {
+        tag = tag.substring(2);
+      }
+      if (tag.endsWith(RenderedNewsPage.GZIP_ETAG_SUFFIX + "\"")) {
+        tag = tag.substring(0, tag.length() - RenderedNewsPage.GZIP_ETAG_SUFFIX.length() - 1) + "\"";
+      }
+      if (tag.equals(etag)) {
+        return true;
+      }
+    }
+    return false;
+  }
 }
@@ -0,0 +1,25 @@
+package news.api.controller;
+
+import lombok.RequiredArgsConstructor;
+import news.api.service.NewsStreamService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/news")
+@RequiredArgsConstructor
+public class NewsStreamController {
+
+  private final NewsStreamService newsStreamService;
+
+  /**
+   * Server-Sent Events stream with one {@code article} event per newly ingested article.
+   */
+  @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter streamNews() {
+    return newsStreamService.subscribe();
+  }
+}
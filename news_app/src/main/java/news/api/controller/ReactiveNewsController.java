@@ -0,0 +1,47 @@
+package news.api.controller;
+
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import news.api.dto.NewsFilter;
+import news.api.service.ReactiveNewsService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking variant of {@link NewsController#getNews}, enabled with
+ * {@code app.news.read-mode=reactive}. The handler returns a {@link Mono}, so the servlet thread is
+ * released while the page is read from Redis and the response is written on completion.
+ *
+ * <p>The {@code !cursor} condition makes this mapping more specific than the blocking one, so it
+ * takes over offset requests while cursor requests still go to {@link NewsController}.
+ */
+@RestController
+@RequestMapping("/api/news")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.news.read-mode", havingValue = "reactive")
+public class ReactiveNewsController {
+
+  private final ReactiveNewsService reactiveNewsService;
+
+  @GetMapping(params = "!cursor")
+  public Mono<ResponseEntity<byte[]>> getNews(
+      @PageableDefault(size = 10, sort = "pubDate", direction = Sort.Direction.DESC) Pageable pageable,
+      @RequestParam(name = "category", required = false) List<String> categories,
+      @RequestParam(name = "match", defaultValue = "any") String match,
+      @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+      @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+    NewsFilter filter = NewsFilter.of(categories, NewsController.parseMatchAll(match));
+    return reactiveNewsService.getRenderedNews(pageable, filter)
+        .map(newsPage -> NewsController.toResponse(newsPage, ifNoneMatch, acceptEncoding));
+  }
+}
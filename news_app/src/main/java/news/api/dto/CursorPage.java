@@ -0,0 +1,18 @@
+package news.api.dto;
+
+import java.util.List;
+import lombok.Value;
+
+/**
+ * One slice of the feed in cursor mode. {@code nextCursor} is null once the end of the feed is
+ * reached.
+ */
+@Value
+public class CursorPage<T> {
+
+  List<T> content;
+
+  int size;
+
+  String nextCursor;
+}
@@ -0,0 +1,33 @@
+package news.api.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in the pubDate-descending feed: the pubDate (epoch millis) and guid of the last article
+ * a client has seen. Exchanged with clients as an opaque base64url token.
+ *
+ * @param pubDate the last article's pubDate score in the index
+ * @param id      the last article's guid, breaking ties between equal pubDates
+ */
+public record NewsCursor(long pubDate, String id) {
+
+  private static final char SEPARATOR = ':';
+
+  public String encode() {
+    String raw = pubDate + String.valueOf(SEPARATOR) + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+   */
+  public static NewsCursor decode(String token) {
+    String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+    int separator = raw.indexOf(SEPARATOR);
+    if (separator <= 0 || separator == raw.length() - 1) {
+      throw new IllegalArgumentException("Malformed news cursor");
+    }
+    return new NewsCursor(Long.parseLong(raw.substring(0, separator)), raw.substring(separator + 1));
+  }
+}
@@ -0,0 +1,39 @@
+package news.api.dto;
+
+import java.util.Collection;
+import java.util.List;
+import lombok.Value;
+import news.model.Categories;
+
+/**
+ * Category filter of a news request. Categories are normalized with {@link Categories#normalize},
+ * as the consumer names its per-category indexes, so equal filters compare equal.
+ */
+@Value
+public class NewsFilter {
+
+  public static final NewsFilter NONE = new NewsFilter(List.of(), false);
+
+  // Normalized, distinct and sorted category names
+  List<String> categories;
+
+  // true = article must carry every category (AND), false = any of them (OR)
+  boolean matchAll;
+
+  public static NewsFilter of(Collection<String> categories, boolean matchAll) {
+    if (categories == null) {
+      return NONE;
+    }
+    List<String> normalized = categories.stream()
+        .filter(category -> category != null && !category.isBlank())
+        .map(Categories::normalize)
+        .distinct()
+        .sorted()
+        .toList();
+    return normalized.isEmpty() ? NONE : new NewsFilter(normalized, matchAll);
+  }
+
+  public boolean isEmpty() {
+    return categories.isEmpty();
+  }
+}
@@ -0,0 +1,100 @@
+package news.api.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import news.model.NewsArticle;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Loads article values for a list of ids. Ids are fetched with MGET in chunks of
+ * {@code app.redis.hydration.chunk-size}; when more than one chunk is needed the MGETs are
+ * pipelined so the whole list still costs a single round trip.
+ */
+@Component
+@Slf4j
+public class ArticleHydrator {
+
+  static final String ARTICLE_KEY_PREFIX = "article:";
+
+  private final RedisTemplate<String, NewsArticle> redisTemplate;
+
+  private final int chunkSize;
+
+  public ArticleHydrator(RedisTemplate<String, NewsArticle> redisTemplate,
+                         @Value("${app.redis.hydration.chunk-size:100}") int chunkSize) {
+    Assert.isTrue(chunkSize > 0, "app.redis.hydration.chunk-size must be positive");
+    this.redisTemplate = redisTemplate;
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Fetches the articles for the given ids, keeping their order and dropping ids whose value is
+   * gone (typically expired since they were indexed).
+   */
+  public HydrationResult hydrate(List<String> ids) {
+    if (ids.isEmpty()) {
+      return new HydrationResult(Collections.emptyList(), 0);
+    }
+
+    List<String> keys = ids.stream().map(id -> ARTICLE_KEY_PREFIX + id).toList();
+    List<NewsArticle> values = keys.size() <= chunkSize
+        ? redisTemplate.opsForValue().multiGet(keys)
+        : multiGetPipelined(keys);
+
+    List<NewsArticle> articles = new ArrayList<>(keys.size());
+    if (values != null) {
+      for (NewsArticle article : values) {
+        if (article != null) {
+          articles.add(article);
+        }
+      }
+    }
+
+    int missing = keys.size() - articles.size();
+    if (missing > 0) {
+      log.warn("{} of {} article keys were missing", missing, keys.size());
+    }
+    return new HydrationResult(articles, missing);
+  }
+
+  public NewsArticle hydrate(String id) {
+    List<NewsArticle> articles = hydrate(List.of(id)).articles();
+    return articles.isEmpty() ? null : articles.get(0);
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<NewsArticle> multiGetPipelined(List<String> keys) {
+    List<Object> chunks = redisTemplate.executePipelined(new SessionCallback<Object>() {
+      @Override
+      public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+        RedisOperations<String, NewsArticle> ops = (RedisOperations<String, NewsArticle>) operations;
+        for (int start = 0; start < keys.size(); start += chunkSize) {
+          ops.opsForValue().multiGet(keys.subList(start, Math.min(start + chunkSize, keys.size())));
+        }
+        return null;
+      }
+    });
+
+    List<NewsArticle> values = new ArrayList<>(keys.size());
+    for (Object chunk : chunks) {
+      values.addAll((List<NewsArticle>) chunk);
+    }
+    return values;
+  }
+
+  /**
+   * @param articles the articles found, in the order of the requested ids
+   * @param missing  the number of requested ids that had no value
+   */
+  public record HydrationResult(List<NewsArticle> articles, int missing) {
+  }
+}
@@ -0,0 +1,201 @@
+package news.api.repository;
+
+import lombok.RequiredArgsConstructor;
+import news.api.dto.NewsCursor;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Read side of the sorted-set indexes maintained by the news consumer next to each
+ * {@code article:<id>} value.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ArticleIndexRepository {
+
+  // Prefix of the per-category indexes, score = pubDate epoch millis, member = id
+  static final String BY_CATEGORY_KEY_PREFIX = "articles:category:";
+
+  // Bumped by the news consumer whenever the stored articles change
+  public static final String VERSION_KEY = "articles:version";
+
+  // Prefix of the union/intersection results of several category indexes
+  static final String CATEGORY_FILTER_KEY_PREFIX = "articles:filter:";
+
+  // Prefix of the articles:version a filter result was built at
+  static final String CATEGORY_FILTER_VERSION_KEY_PREFIX = "articles:filter-version:";
+
+  // Prefix of a filter result while it is built, before it is renamed into place
+  static final String CATEGORY_FILTER_BUILD_KEY_PREFIX = "articles:filter-build:";
+
+  // Lifetime of a filter result. Its version marker lapses at half of it, so a request that
+  // finds the marker still has half the TTL left to read its page.
+  static final Duration CATEGORY_FILTER_TTL = Duration.ofSeconds(30);
+
+  static final Duration CATEGORY_FILTER_VERSION_TTL = CATEGORY_FILTER_TTL.dividedBy(2);
+
+  private final StringRedisTemplate stringRedisTemplate;
+
+  /**
+   * Returns one page of ids from the index of the given field. Lexicographic indexes hold every
+   * member at score 0, so rank addressing walks them in ZRANGEBYLEX order while costing
+   * O(log N + count) regardless of the offset.
+   */
+  public List<String> findIds(ArticleSortField field, long offset, int count, boolean descending) {
+    List<String> members = findIds(field.getIndexKey(), offset, count, descending);
+    List<String> ids = new ArrayList<>(members.size());
+    for (String member : members) {
+      ids.add(field.toId(member));
+    }
+    return ids;
+  }
+
+  /**
+   * Returns one page of members of an index whose members are article ids.
+   */
+  public List<String> findIds(String indexKey, long offset, int count, boolean descending) {
+    ZSetOperations<String, String> zSetOps = stringRedisTemplate.opsForZSet();
+    long end = offset + count - 1;
+    Set<String> members = descending
+        ? zSetOps.reverseRange(indexKey, offset, end)
+        : zSetOps.range(indexKey, offset, end);
+    return members == null ? Collections.emptyList() : new ArrayList<>(members);
+  }
+
+  /**
+   * Returns up to {@code count} entries of a pubDate-scored index that come strictly after the
+   * cursor in descending (pubDate, id) order, or the newest entries when the cursor is null. Only
+   * the cursor's pubDate ties and the requested slice are read, so the cost does not depend on how
+   * deep the cursor is or on articles inserted ahead of it.
+   */
+  public List<IndexedId> findAfter(String indexKey, NewsCursor cursor, int count) {
+    ZSetOperations<String, String> zSetOps = stringRedisTemplate.opsForZSet();
+    List<IndexedId> entries = new ArrayList<>(count);
+    if (cursor == null) {
+      addAll(entries, zSetOps.reverseRangeWithScores(indexKey, 0, count - 1L));
+      return entries;
+    }
+
+    // Equal scores are returned in descending member order, keep those below the cursor's id
+    Set<String> ties = zSetOps.reverseRangeByScore(indexKey, cursor.pubDate(), cursor.pubDate());
+    if (ties != null) {
+      for (String id : ties) {
+        if (entries.size() == count) {
+          return entries;
+        }
+        if (id.compareTo(cursor.id()) < 0) {
+          entries.add(new IndexedId(id, cursor.pubDate()));
+        }
+      }
+    }
+
+    int remaining = count - entries.size();
+    if (remaining > 0) {
+      addAll(entries, zSetOps.reverseRangeByScoreWithScores(
+          indexKey, Double.NEGATIVE_INFINITY, Math.nextDown((double) cursor.pubDate()), 0, remaining));
+    }
+    return entries;
+  }
+
+  public List<String> findAllIds() {
+    return findAllIds(ArticleSortField.PUB_DATE.getIndexKey());
+  }
+
+  public List<String> findAllIds(String indexKey) {
+    Set<String> ids = stringRedisTemplate.opsForZSet().reverseRange(indexKey, 0, -1);
+    return ids == null ? Collections.emptyList() : new ArrayList<>(ids);
+  }
+
+  public long count(ArticleSortField field) {
+    return count(field.getIndexKey());
+  }
+
+  public long count(String indexKey) {
+    Long size = stringRedisTemplate.opsForZSet().zCard(indexKey);
+    return size == null ? 0 : size;
+  }
+
+  /**
+   * Resolves the pubDate-scored index holding the articles of the given normalized categories. A
+   * single category is paged straight from its own index. Several are combined with ZUNIONSTORE
+   * (any) or ZINTERSTORE (all). The result is reused until the consumer bumps
+   * {@code articles:version} or its version marker lapses, so a warm filter costs one MGET per page
+   * however many articles it holds. A rebuild is written to a fresh key and renamed over the old
+   * result, so concurrent requests never read a half-written one.
+   */
+  public String categoryIndexKey(List<String> categories, boolean matchAll) {
+    if (categories.size() == 1) {
+      return BY_CATEGORY_KEY_PREFIX + categories.get(0);
+    }
+
+    String destKey = categoryFilterKey(categories, matchAll);
+    String versionKey = categoryFilterVersionKey(categories, matchAll);
+    List<String> versions = stringRedisTemplate.opsForValue().multiGet(List.of(VERSION_KEY, versionKey));
+    String version = versions == null || versions.get(0) == null ? "0" : versions.get(0);
+    if (versions != null && version.equals(versions.get(1))) {
+      return destKey;
+    }
+
+    String buildKey = categoryFilterBuildKey();
+    List<String> keys = categories.stream().map(category -> BY_CATEGORY_KEY_PREFIX + category).toList();
+    ZSetOperations<String, String> zSetOps = stringRedisTemplate.opsForZSet();
+    // Every index scores an article by its pubDate, MAX keeps that score instead of summing it
+    Long size = matchAll
+        ? zSetOps.intersectAndStore(keys.get(0), keys.subList(1, keys.size()), buildKey, Aggregate.MAX)
+        : zSetOps.unionAndStore(keys.get(0), keys.subList(1, keys.size()), buildKey, Aggregate.MAX);
+    if (size == null || size == 0) {
+      // Nothing was stored to rename, an absent key reads as an empty page
+      stringRedisTemplate.delete(destKey);
+    } else {
+      stringRedisTemplate.expire(buildKey, CATEGORY_FILTER_TTL);
+      stringRedisTemplate.rename(buildKey, destKey);
+    }
+    stringRedisTemplate.opsForValue().set(versionKey, version, CATEGORY_FILTER_VERSION_TTL);
+    return destKey;
+  }
+
+  static String categoryFilterKey(List<String> categories, boolean matchAll) {
+    StringBuilder key = new StringBuilder(CATEGORY_FILTER_KEY_PREFIX).append(matchAll ? "all:" : "any:");
+    for (int i = 0; i < categories.size(); i++) {
+      if (i > 0) {
+        key.append('|');
+      }
+      // Escaped so that ["a|b", "c"] and ["a", "b|c"] get different keys
+      key.append(categories.get(i).replace("\\", "\\\\").replace("|", "\\|"));
+    }
+    return key.toString();
+  }
+
+  static String categoryFilterVersionKey(List<String> categories, boolean matchAll) {
+    return CATEGORY_FILTER_VERSION_KEY_PREFIX + categoryFilterKey(categories, matchAll).substring(CATEGORY_FILTER_KEY_PREFIX.length());
+  }
+
+  static String categoryFilterBuildKey() {
+    return CATEGORY_FILTER_BUILD_KEY_PREFIX + UUID.randomUUID();
+  }
+
+  private static void addAll(List<IndexedId> entries, Set<ZSetOperations.TypedTuple<String>> tuples) {
+    if (tuples == null) {
+      return;
+    }
+    for (ZSetOperations.TypedTuple<String> tuple : tuples) {
+      entries.add(new IndexedId(tuple.getValue(), tuple.getScore() == null ? 0 : tuple.getScore().longValue()));
+    }
+  }
+
+  /**
+   * @param id    the article id
+   * @param score its score in the index, the pubDate in epoch millis
+   */
+  public record IndexedId(String id, long score) {
+  }
+}
@@ -0,0 +1,47 @@
+package news.api.repository;
+
+/**
+ * Article properties that have a Redis sorted-set index maintained by the news consumer.
+ */
+public enum ArticleSortField {
+
+  // Score = pubDate epoch millis, member = id
+  PUB_DATE("articles:by-date", false),
+
+  // All scores 0, member = title + NUL + id so ZRANGE returns lexicographic order
+  TITLE("articles:by-title", true),
+
+  // All scores 0, member = creator + NUL + id so ZRANGE returns lexicographic order
+  CREATOR("articles:by-creator", true);
+
+  private static final char LEX_SEPARATOR = '\u0000';
+
+  private final String indexKey;
+
+  private final boolean lexicographic;
+
+  ArticleSortField(String indexKey, boolean lexicographic) {
+    this.indexKey = indexKey;
+    this.lexicographic = lexicographic;
+  }
+
+  public String getIndexKey() {
+    return indexKey;
+  }
+
+  /**
+   * Maps a request sort property to its index. Unknown properties keep the historical pubDate
+   * ordering.
+   */
+  public static ArticleSortField fromProperty(String property) {
+    return switch (property) {
+      case "title" -> TITLE;
+      case "creator" -> CREATOR;
+      default -> PUB_DATE;
+    };
+  }
+
+  String toId(String member) {
+    return lexicographic ? member.substring(member.indexOf(LEX_SEPARATOR) + 1) : member;
+  }
+}
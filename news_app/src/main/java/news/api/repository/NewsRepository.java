@@ -3,70 +3,149 @@ package news.api.repository;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import news.api.dto.NewsArticle;
+import news.api.dto.CursorPage;
+import news.api.dto.NewsCursor;
+import news.api.dto.NewsFilter;
+import news.api.repository.ArticleIndexRepository.IndexedId;
+import news.model.NewsArticle;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Repository;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Set;
-import java.util.logging.Logger;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Repository
 @RequiredArgsConstructor
 @Slf4j
 public class NewsRepository {
 
-  private final RedisTemplate<String, NewsArticle> redisTemplate;
+  private final ArticleIndexRepository articleIndexRepository;
+
+  private final ArticleHydrator articleHydrator;
 
   public Page<NewsArticle> findAll(Pageable pageable) {
-    // Get all keys matching the pattern "article:*"
-    Set<String> keys = redisTemplate.keys("article:*");
-    if (keys == null || keys.isEmpty()) {
-      log.info("No article keys found in Redis");
+    Sort sort = pageable.getSort();
+    if (sort.isUnsorted()) {
+      // Default sort by pubDate desc
+      return findAllIndexed(pageable, ArticleSortField.PUB_DATE, true);
+    }
+
+    List<Sort.Order> orders = sort.toList();
+    if (orders.size() == 1) {
+      Sort.Order order = orders.get(0);
+      return findAllIndexed(pageable, ArticleSortField.fromProperty(order.getProperty()), order.isDescending());
+    }
+    return findAllSortedInMemory(pageable, articleIndexRepository.findAllIds());
+  }
+
+  /**
+   * Same as {@link #findAll(Pageable)}, restricted to the articles matching the category filter.
+   * Category indexes are ordered by pubDate, other sorts are applied in memory to the matching
+   * articles only.
+   */
+  public Page<NewsArticle> findAll(Pageable pageable, NewsFilter filter) {
+    if (filter.isEmpty()) {
+      return findAll(pageable);
+    }
+
+    String indexKey = articleIndexRepository.categoryIndexKey(filter.getCategories(), filter.isMatchAll());
+    Sort sort = pageable.getSort();
+    if (sort.isUnsorted()) {
+      return findAllIndexed(pageable, indexKey, true);
+    }
+
+    List<Sort.Order> orders = sort.toList();
+    if (orders.size() == 1 && ArticleSortField.fromProperty(orders.get(0).getProperty()) == ArticleSortField.PUB_DATE) {
+      return findAllIndexed(pageable, indexKey, orders.get(0).isDescending());
+    }
+    return findAllSortedInMemory(pageable, articleIndexRepository.findAllIds(indexKey));
+  }
+
+  /**
+   * Returns the next {@code size} articles after the cursor in pubDate desc order, straight from
+   * the pubDate (or category) index. Articles inserted ahead of the cursor do not shift the slice.
+   */
+  public CursorPage<NewsArticle> findAfter(NewsCursor cursor, int size, NewsFilter filter) {
+    String indexKey = filter.isEmpty()
+        ? ArticleSortField.PUB_DATE.getIndexKey()
+        : articleIndexRepository.categoryIndexKey(filter.getCategories(), filter.isMatchAll());
+    List<IndexedId> entries = articleIndexRepository.findAfter(indexKey, cursor, size);
+
+    List<NewsArticle> articles = articleHydrator.hydrate(entries.stream().map(IndexedId::id).toList()).articles();
+
+    // Continue from the last indexed entry, even if its value has expired since
+    String nextCursor = null;
+    if (entries.size() == size) {
+      IndexedId last = entries.get(entries.size() - 1);
+      nextCursor = new NewsCursor(last.score(), last.id()).encode();
+    }
+    log.info("Returning cursor page with " + articles.size() + " articles");
+    return new CursorPage<>(articles, size, nextCursor);
+  }
+
+  // Get a single article by ID
+  public NewsArticle findById(String id) {
+    return articleHydrator.hydrate(id);
+  }
+
+  // Serve the page straight from the field's index, only the requested ids are fetched
+  private Page<NewsArticle> findAllIndexed(Pageable pageable, ArticleSortField field, boolean descending) {
+    return findAllIndexed(pageable, articleIndexRepository.count(field),
+        () -> articleIndexRepository.findIds(field, pageable.getOffset(), pageable.getPageSize(), descending));
+  }
+
+  private Page<NewsArticle> findAllIndexed(Pageable pageable, String indexKey, boolean descending) {
+    return findAllIndexed(pageable, articleIndexRepository.count(indexKey),
+        () -> articleIndexRepository.findIds(indexKey, pageable.getOffset(), pageable.getPageSize(), descending));
+  }
+
+  private Page<NewsArticle> findAllIndexed(Pageable pageable, long total, Supplier<List<String>> pageIds) {
+    if (total == 0) {
+      log.info("No articles found in the index");
       return new PageImpl<>(Collections.emptyList(), pageable, 0);
     }
+    if (pageable.getOffset() >= total) {
+      log.info("Requested page exceeds available articles");
+      return new PageImpl<>(Collections.emptyList(), pageable, total);
+    }
 
-    log.info("Found " + keys.size() + " article keys in Redis");
-    List<NewsArticle> articles = new ArrayList<>();
+    List<NewsArticle> pagedArticles = articleHydrator.hydrate(pageIds.get()).articles();
+    log.info("Returning page with " + pagedArticles.size() + " articles");
+    return new PageImpl<>(pagedArticles, pageable, total);
+  }
 
-    // Get values for all keys - now directly as NewsArticle objects
-    for (String key : keys) {
-      NewsArticle article = redisTemplate.opsForValue().get(key);
-      if (article != null) {
-        articles.add(article);
-      } else {
-        log.warn("Null value found for key: " + key);
-      }
+  // Sorts without an index load every candidate article and sort them in memory
+  private Page<NewsArticle> findAllSortedInMemory(Pageable pageable, List<String> ids) {
+    if (ids.isEmpty()) {
+      log.info("No articles found in the index");
+      return new PageImpl<>(Collections.emptyList(), pageable, 0);
     }
 
-    // Apply sorting if specified
-    if (pageable.getSort().isSorted()) {
-      pageable.getSort().forEach(order -> {
-        String property = order.getProperty();
-
-        Comparator<NewsArticle> comparator = switch (property) {
-          case "title" -> Comparator.comparing(NewsArticle::getTitle);
-          case "pubDate" -> Comparator.comparing(NewsArticle::getPublishedAt);
-          case "creator" -> Comparator.comparing(NewsArticle::getCreator);
-          default -> Comparator.comparing(NewsArticle::getPublishedAt);
-        };
-
-        if (order.isDescending()) {
-          comparator = comparator.reversed();
-        }
-
-        articles.sort(comparator);
-      });
-    } else {
-      // Default sort by pubDate desc
-      articles.sort(Comparator.comparing(NewsArticle::getPublishedAt).reversed());
+    log.info("Sorting " + ids.size() + " articles in memory for " + pageable.getSort());
+    List<NewsArticle> articles = new ArrayList<>(articleHydrator.hydrate(ids).articles());
+
+    Comparator<NewsArticle> comparator = null;
+    for (Sort.Order order : pageable.getSort()) {
+      Comparator<NewsArticle> next = switch (ArticleSortField.fromProperty(order.getProperty())) {
+        case TITLE -> nullsFirst(NewsArticle::getTitle);
+        case CREATOR -> nullsFirst(NewsArticle::getCreator);
+        case PUB_DATE -> Comparator.comparing(NewsArticle::getPublishedAt,
+            Comparator.nullsFirst(Comparator.naturalOrder()));
+      };
+
+      if (order.isDescending()) {
+        next = next.reversed();
+      }
+      comparator = comparator == null ? next : comparator.thenComparing(next);
     }
+    articles.sort(comparator);
 
     // Apply pagination
     int start = (int) pageable.getOffset();
@@ -82,9 +161,11 @@ public class NewsRepository {
     return new PageImpl<>(pagedArticles, pageable, articles.size());
   }
 
-  // Get a single article by ID
-  public NewsArticle findById(String id) {
-    String key = "article:" + id;
-    return redisTemplate.opsForValue().get(key);
+  // Matches the lexicographic indexes, where a missing value is stored as the empty string
+  private static Comparator<NewsArticle> nullsFirst(Function<NewsArticle, String> property) {
+    return Comparator.comparing(article -> {
+      String value = property.apply(article);
+      return value == null ? "" : value;
+    });
   }
 }
@@ -0,0 +1,176 @@
+package news.api.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import news.api.dto.NewsFilter;
+import news.model.NewsArticle;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Range;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveZSetOperations;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Non-blocking read side of the article indexes, used when {@code app.news.read-mode=reactive}.
+ * Indexed pages (any single-field sort, pubDate within a category filter) are read with the
+ * reactive Lettuce API end to end. Sorts that need the in-memory fallback delegate to
+ * {@link NewsRepository} on the bounded elastic scheduler, off the Redis I/O threads.
+ */
+@Repository
+@Slf4j
+@ConditionalOnProperty(name = "app.news.read-mode", havingValue = "reactive")
+public class ReactiveNewsRepository {
+
+  private final ReactiveStringRedisTemplate reactiveStringRedisTemplate;
+
+  private final ReactiveRedisTemplate<String, NewsArticle> reactiveRedisTemplate;
+
+  private final NewsRepository newsRepository;
+
+  private final int chunkSize;
+
+  public ReactiveNewsRepository(ReactiveStringRedisTemplate reactiveStringRedisTemplate,
+                                ReactiveRedisTemplate<String, NewsArticle> reactiveRedisTemplate,
+                                NewsRepository newsRepository,
+                                @Value("${app.redis.hydration.chunk-size:100}") int chunkSize) {
+    Assert.isTrue(chunkSize > 0, "app.redis.hydration.chunk-size must be positive");
+    this.reactiveStringRedisTemplate = reactiveStringRedisTemplate;
+    this.reactiveRedisTemplate = reactiveRedisTemplate;
+    this.newsRepository = newsRepository;
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Same contract as {@link NewsRepository#findAll(Pageable, NewsFilter)}.
+   */
+  public Mono<Page<NewsArticle>> findAll(Pageable pageable, NewsFilter filter) {
+    List<Sort.Order> orders = pageable.getSort().toList();
+    if (orders.size() > 1) {
+      return findAllBlocking(pageable, filter);
+    }
+
+    // Default sort by pubDate desc
+    ArticleSortField field = orders.isEmpty()
+        ? ArticleSortField.PUB_DATE
+        : ArticleSortField.fromProperty(orders.get(0).getProperty());
+    boolean descending = orders.isEmpty() || orders.get(0).isDescending();
+    if (filter.isEmpty()) {
+      return findAllIndexed(pageable, field.getIndexKey(), field, descending);
+    }
+    if (field != ArticleSortField.PUB_DATE) {
+      return findAllBlocking(pageable, filter);
+    }
+    return categoryIndexKey(filter)
+        .flatMap(indexKey -> findAllIndexed(pageable, indexKey, ArticleSortField.PUB_DATE, descending));
+  }
+
+  // ZCARD and ZRANGE are issued together and share the connection, then the page is hydrated
+  private Mono<Page<NewsArticle>> findAllIndexed(Pageable pageable, String indexKey, ArticleSortField field,
+                                                 boolean descending) {
+    ReactiveZSetOperations<String, String> zSetOps = reactiveStringRedisTemplate.opsForZSet();
+    Range<Long> ranks = Range.closed(pageable.getOffset(), pageable.getOffset() + pageable.getPageSize() - 1);
+    Flux<String> members = descending ? zSetOps.reverseRange(indexKey, ranks) : zSetOps.range(indexKey, ranks);
+
+    return Mono.zip(zSetOps.size(indexKey), members.map(field::toId).collectList())
+        .flatMap(result -> {
+          long total = result.getT1();
+          List<String> ids = result.getT2();
+          if (ids.isEmpty()) {
+            log.info("No articles found in the index for the requested page");
+            return Mono.just(page(Collections.emptyList(), pageable, total));
+          }
+          return hydrate(ids).map(articles -> page(articles, pageable, total));
+        });
+  }
+
+  private Mono<Page<NewsArticle>> findAllBlocking(Pageable pageable, NewsFilter filter) {
+    return Mono.fromCallable(() -> newsRepository.findAll(pageable, filter))
+        .subscribeOn(Schedulers.boundedElastic());
+  }
+
+  // Same keys, reuse and rename as ArticleIndexRepository#categoryIndexKey
+  private Mono<String> categoryIndexKey(NewsFilter filter) {
+    List<String> categories = filter.getCategories();
+    if (categories.size() == 1) {
+      return Mono.just(ArticleIndexRepository.BY_CATEGORY_KEY_PREFIX + categories.get(0));
+    }
+
+    String destKey = ArticleIndexRepository.categoryFilterKey(categories, filter.isMatchAll());
+    String versionKey = ArticleIndexRepository.categoryFilterVersionKey(categories, filter.isMatchAll());
+    return reactiveStringRedisTemplate.opsForValue()
+        .multiGet(List.of(ArticleIndexRepository.VERSION_KEY, versionKey))
+        .flatMap(versions -> {
+          String version = versions.get(0) == null ? "0" : versions.get(0);
+          if (version.equals(versions.get(1))) {
+            return Mono.just(destKey);
+          }
+          return storeCategoryFilter(filter, destKey)
+              .then(reactiveStringRedisTemplate.opsForValue()
+                  .set(versionKey, version, ArticleIndexRepository.CATEGORY_FILTER_VERSION_TTL))
+              .thenReturn(destKey);
+        });
+  }
+
+  private Mono<Void> storeCategoryFilter(NewsFilter filter, String destKey) {
+    List<String> categories = filter.getCategories();
+    String buildKey = ArticleIndexRepository.categoryFilterBuildKey();
+    List<String> keys = categories.stream().map(category -> ArticleIndexRepository.BY_CATEGORY_KEY_PREFIX + category).toList();
+    ReactiveZSetOperations<String, String> zSetOps = reactiveStringRedisTemplate.opsForZSet();
+    Mono<Long> store = filter.isMatchAll()
+        ? zSetOps.intersectAndStore(keys.get(0), keys.subList(1, keys.size()), buildKey, Aggregate.MAX)
+        : zSetOps.unionAndStore(keys.get(0), keys.subList(1, keys.size()), buildKey, Aggregate.MAX);
+
+    return store.flatMap(size -> size == 0
+        ? reactiveStringRedisTemplate.delete(destKey).then()
+        : reactiveStringRedisTemplate.expire(buildKey, ArticleIndexRepository.CATEGORY_FILTER_TTL)
+            .then(reactiveStringRedisTemplate.rename(buildKey, destKey))
+            .then());
+  }
+
+  // MGET per chunk of ids, the chunks are in flight together and reassembled in order
+  private Mono<List<NewsArticle>> hydrate(List<String> ids) {
+    List<List<String>> chunks = new ArrayList<>();
+    for (int start = 0; start < ids.size(); start += chunkSize) {
+      chunks.add(ids.subList(start, Math.min(start + chunkSize, ids.size()))
+          .stream().map(id -> ArticleHydrator.ARTICLE_KEY_PREFIX + id).toList());
+    }
+
+    return Flux.fromIterable(chunks)
+        .flatMapSequential(keys -> reactiveRedisTemplate.opsForValue().multiGet(keys))
+        .collectList()
+        .map(values -> {
+          List<NewsArticle> articles = new ArrayList<>(ids.size());
+          for (List<NewsArticle> chunk : values) {
+            for (NewsArticle article : chunk) {
+              if (article != null) {
+                articles.add(article);
+              }
+            }
+          }
+          int missing = ids.size() - articles.size();
+          if (missing > 0) {
+            log.warn("{} of {} article keys were missing", missing, ids.size());
+          }
+          log.info("Returning page with " + articles.size() + " articles");
+          return articles;
+        });
+  }
+
+  private static Page<NewsArticle> page(List<NewsArticle> articles, Pageable pageable, long total) {
+    return new PageImpl<>(articles, pageable, total);
+  }
+}
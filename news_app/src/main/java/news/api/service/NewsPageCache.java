@@ -0,0 +1,134 @@
+package news.api.service;
+
+import lombok.extern.slf4j.Slf4j;
+import news.api.dto.NewsFilter;
+import news.api.repository.ArticleIndexRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded in-JVM cache of rendered news pages, evicted by size (LRU) and TTL. The whole cache is dropped
+ * when the consumer bumps {@code articles:version}; the version is polled in the background so
+ * serving a cached page never waits on Redis.
+ */
+@Component
+@Slf4j
+public class NewsPageCache {
+
+  // Bumped by the news consumer whenever the stored articles change
+  static final String VERSION_KEY = ArticleIndexRepository.VERSION_KEY;
+
+  private final StringRedisTemplate stringRedisTemplate;
+
+  private final int maxSize;
+
+  private final Duration ttl;
+
+  private final Clock clock;
+
+  private final Map<PageKey, Entry> entries;
+
+  private volatile long version = -1;
+
+  @Autowired
+  public NewsPageCache(StringRedisTemplate stringRedisTemplate,
+                       @Value("${app.news.cache.max-size:256}") int maxSize,
+                       @Value("${app.news.cache.ttl:30s}") Duration ttl) {
+    this(stringRedisTemplate, maxSize, ttl, Clock.systemUTC());
+  }
+
+  NewsPageCache(StringRedisTemplate stringRedisTemplate, int maxSize, Duration ttl, Clock clock) {
+    this.stringRedisTemplate = stringRedisTemplate;
+    this.maxSize = maxSize;
+    this.ttl = ttl;
+    this.clock = clock;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<PageKey, Entry> eldest) {
+        return size() > NewsPageCache.this.maxSize;
+      }
+    };
+  }
+
+  /**
+   * @return the cached page, or null if absent, expired or cached under an older version
+   */
+  public RenderedNewsPage get(PageKey key) {
+    synchronized (entries) {
+      Entry entry = entries.get(key);
+      if (entry == null) {
+        return null;
+      }
+      if (entry.version() != version || clock.millis() >= entry.expiresAt()) {
+        entries.remove(key);
+        return null;
+      }
+      return entry.page();
+    }
+  }
+
+  /**
+   * Caches a page loaded while {@code loadedAtVersion} was current. Pages loaded before a version
+   * bump are dropped so a slow load cannot re-insert stale data.
+   */
+  public void put(PageKey key, long loadedAtVersion, RenderedNewsPage page) {
+    if (maxSize <= 0 || loadedAtVersion != version) {
+      return;
+    }
+    synchronized (entries) {
+      entries.put(key, new Entry(page, loadedAtVersion, clock.millis() + ttl.toMillis()));
+    }
+  }
+
+  public long version() {
+    return version;
+  }
+
+  @Scheduled(fixedDelayString = "${app.news.cache.version-poll-interval:1000}")
+  public void refreshVersion() {
+    try {
+      String value = stringRedisTemplate.opsForValue().get(VERSION_KEY);
+      onVersion(value == null ? 0 : Long.parseLong(value));
+    } catch (Exception e) {
+      // Entries still expire by TTL while Redis is unreachable
+      log.warn("Failed to read articles version: " + e.getMessage());
+    }
+  }
+
+  void onVersion(long newVersion) {
+    if (newVersion == version) {
+      return;
+    }
+    synchronized (entries) {
+      version = newVersion;
+      entries.clear();
+    }
+    log.info("Articles version changed to {}, cleared news page cache", newVersion);
+  }
+
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  public record PageKey(int page, int size, Sort sort, NewsFilter filter) {
+
+    public static PageKey of(Pageable pageable, NewsFilter filter) {
+      return new PageKey(pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort(), filter);
+    }
+  }
+
+  private record Entry(RenderedNewsPage page, long version, long expiresAt) {
+  }
+}
@@ -0,0 +1,52 @@
+package news.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import news.model.NewsArticle;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serializes news pages once into the bytes served by the news endpoint.
+ */
+@Component
+public class NewsPageRenderer {
+
+  private final ObjectMapper objectMapper;
+
+  private final int gzipMinSize;
+
+  public NewsPageRenderer(ObjectMapper objectMapper,
+                          @Value("${app.news.gzip.min-size:1024}") int gzipMinSize) {
+    this.objectMapper = objectMapper;
+    this.gzipMinSize = gzipMinSize;
+  }
+
+  public RenderedNewsPage render(Page<NewsArticle> page) {
+    try {
+      byte[] json = objectMapper.writeValueAsBytes(page);
+      byte[] gzip = json.length >= gzipMinSize ? gzip(json) : null;
+      String etag = "\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+      return new RenderedNewsPage(page, json, gzip, etag);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Error serializing news page", e);
+    }
+  }
+
+  private static byte[] gzip(byte[] content) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 4);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(content);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out.toByteArray();
+  }
+}
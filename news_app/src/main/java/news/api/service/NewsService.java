@@ -1,8 +1,12 @@
 package news.api.service;
 
 import lombok.RequiredArgsConstructor;
-import news.api.dto.NewsArticle;
+import news.api.dto.CursorPage;
+import news.api.dto.NewsCursor;
+import news.api.dto.NewsFilter;
 import news.api.repository.NewsRepository;
+import news.api.service.NewsPageCache.PageKey;
+import news.model.NewsArticle;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -14,7 +18,42 @@ public class NewsService {
 
   private final NewsRepository newsRepository;
 
+  private final NewsPageCache newsPageCache;
+
+  private final NewsPageRenderer newsPageRenderer;
+
   public Page<NewsArticle> getAllNews(Pageable pageable) {
-    return newsRepository.findAll(pageable);
+    return getNews(pageable, NewsFilter.NONE);
+  }
+
+  public Page<NewsArticle> getNews(Pageable pageable, NewsFilter filter) {
+    return getRenderedNews(pageable, filter).page();
+  }
+
+  /**
+   * Returns the page with its pre-encoded body, rendering and caching it on a miss.
+   */
+  public RenderedNewsPage getRenderedNews(Pageable pageable, NewsFilter filter) {
+    PageKey key = PageKey.of(pageable, filter);
+    RenderedNewsPage cached = newsPageCache.get(key);
+    if (cached != null) {
+      return cached;
+    }
+
+    // Read the version before loading so a concurrent bump keeps this page out of the cache
+    long version = newsPageCache.version();
+    Page<NewsArticle> page = filter.isEmpty()
+        ? newsRepository.findAll(pageable)
+        : newsRepository.findAll(pageable, filter);
+    RenderedNewsPage rendered = newsPageRenderer.render(page);
+    newsPageCache.put(key, version, rendered);
+    return rendered;
+  }
+
+  /**
+   * Returns the slice of the feed after the cursor, or the newest articles for a null cursor.
+   */
+  public CursorPage<NewsArticle> getNewsAfter(NewsCursor cursor, int size, NewsFilter filter) {
+    return newsRepository.findAfter(cursor, size, filter);
   }
 }
@@ -0,0 +1,174 @@
+package news.api.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import news.api.repository.NewsRepository;
+import news.model.NewsArticle;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes articles announced by the news consumer on {@code articles:new} to every connected
+ * Server-Sent Events client. Emitters are asynchronous requests, so an idle connection holds no
+ * servlet thread; each article is loaded from Redis once and fanned out to all of them.
+ * <p>
+ * Writes happen on a small pool of send threads rather than the pub/sub listener thread. Every
+ * client has its own bounded queue of pending events, so a slow client only delays itself; one
+ * whose queue overflows is completed, and EventSource reconnects it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NewsStreamService implements MessageListener {
+
+  // Each message is the id of an article the consumer just stored
+  public static final String NEW_ARTICLES_CHANNEL = "articles:new";
+
+  private final NewsRepository newsRepository;
+
+  // Looked up lazily, the container itself is wired with this listener
+  private final ObjectProvider<RedisMessageListenerContainer> listenerContainer;
+
+  private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+  @Value("${app.news.stream.timeout:30m}")
+  private Duration timeout = Duration.ofMinutes(30);
+
+  // Events a client may fall behind by before it is dropped
+  @Value("${app.news.stream.queue-size:64}")
+  private int queueSize = 64;
+
+  @Value("${app.news.stream.send-threads:8}")
+  private int sendThreads = 8;
+
+  private ExecutorService sendExecutor;
+
+  @PostConstruct
+  void startSending() {
+    sendExecutor = Executors.newFixedThreadPool(sendThreads, new CustomizableThreadFactory("sse-send-"));
+  }
+
+  @PreDestroy
+  void stopSending() {
+    sendExecutor.shutdownNow();
+  }
+
+  public SseEmitter subscribe() {
+    // EventSource reconnects by itself once the timeout closes the stream
+    return subscribe(new SseEmitter(timeout.toMillis()));
+  }
+
+  SseEmitter subscribe(SseEmitter emitter) {
+    Subscriber subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(queueSize));
+    emitter.onCompletion(() -> subscribers.remove(subscriber));
+    emitter.onTimeout(emitter::complete);
+    emitter.onError(e -> subscribers.remove(subscriber));
+    subscribers.add(subscriber);
+    ensureListening();
+    return emitter;
+  }
+
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    String id = new String(message.getBody(), StandardCharsets.UTF_8);
+    if (subscribers.isEmpty()) {
+      return;
+    }
+
+    NewsArticle article = newsRepository.findById(id);
+    if (article == null) {
+      log.warn("Announced article {} is not in Redis", id);
+      return;
+    }
+    broadcast(SseEmitter.event().id(id).name("article").data(article, MediaType.APPLICATION_JSON));
+  }
+
+  // Keeps proxies from closing idle streams and reaps clients that went away
+  @Scheduled(fixedDelayString = "${app.news.stream.heartbeat-interval:15000}")
+  public void heartbeat() {
+    if (!subscribers.isEmpty()) {
+      ensureListening();
+      broadcast(SseEmitter.event().comment("heartbeat"));
+    }
+  }
+
+  public int connectionCount() {
+    return subscribers.size();
+  }
+
+  // Once running, the container recovers dropped connections on its own
+  private synchronized void ensureListening() {
+    RedisMessageListenerContainer container = listenerContainer.getIfAvailable();
+    if (container == null || container.isListening()) {
+      return;
+    }
+    try {
+      container.start();
+    } catch (RuntimeException e) {
+      // Reset so the next subscriber or heartbeat tries again
+      container.stop();
+      log.warn("Could not subscribe to {}: {}", NEW_ARTICLES_CHANNEL, e.getMessage());
+    }
+  }
+
+  private void broadcast(SseEmitter.SseEventBuilder event) {
+    for (Subscriber subscriber : subscribers) {
+      if (!subscriber.pending().offer(event)) {
+        // Too far behind, completing lets EventSource start over with a fresh connection
+        subscribers.remove(subscriber);
+        subscriber.emitter().complete();
+        continue;
+      }
+      if (subscriber.draining().compareAndSet(false, true)) {
+        sendExecutor.execute(() -> drain(subscriber));
+      }
+    }
+  }
+
+  // At most one drain per subscriber runs at a time, which keeps its events in order
+  private void drain(Subscriber subscriber) {
+    do {
+      SseEmitter.SseEventBuilder event;
+      while ((event = subscriber.pending().poll()) != null) {
+        try {
+          subscriber.emitter().send(event);
+        } catch (IOException | IllegalStateException e) {
+          subscribers.remove(subscriber);
+          subscriber.pending().clear();
+          subscriber.emitter().completeWithError(e);
+          return;
+        }
+      }
+      subscriber.draining().set(false);
+      // An event offered after the last poll but before the flag was cleared
+    } while (!subscriber.pending().isEmpty() && subscriber.draining().compareAndSet(false, true));
+  }
+
+  private record Subscriber(SseEmitter emitter, Queue<SseEmitter.SseEventBuilder> pending, AtomicBoolean draining) {
+
+    Subscriber(SseEmitter emitter, Queue<SseEmitter.SseEventBuilder> pending) {
+      this(emitter, pending, new AtomicBoolean());
+    }
+  }
+}
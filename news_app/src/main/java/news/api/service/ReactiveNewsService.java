@@ -0,0 +1,43 @@
+package news.api.service;
+
+import lombok.RequiredArgsConstructor;
+import news.api.dto.NewsFilter;
+import news.api.repository.ReactiveNewsRepository;
+import news.api.service.NewsPageCache.PageKey;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Reactive counterpart of {@link NewsService#getRenderedNews}. It shares the page cache and the
+ * renderer with the blocking path, so both modes serve the same bodies and ETags.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.news.read-mode", havingValue = "reactive")
+public class ReactiveNewsService {
+
+  private final ReactiveNewsRepository reactiveNewsRepository;
+
+  private final NewsPageCache newsPageCache;
+
+  private final NewsPageRenderer newsPageRenderer;
+
+  public Mono<RenderedNewsPage> getRenderedNews(Pageable pageable, NewsFilter filter) {
+    PageKey key = PageKey.of(pageable, filter);
+    RenderedNewsPage cached = newsPageCache.get(key);
+    if (cached != null) {
+      return Mono.just(cached);
+    }
+
+    // Read the version before loading so a concurrent bump keeps this page out of the cache
+    long version = newsPageCache.version();
+    // Serializing and gzipping on the Lettuce event loop would hold up every other reply on the connection
+    return reactiveNewsRepository.findAll(pageable, filter)
+        .publishOn(Schedulers.boundedElastic())
+        .map(newsPageRenderer::render)
+        .doOnNext(rendered -> newsPageCache.put(key, version, rendered));
+  }
+}
@@ -0,0 +1,26 @@
+package news.api.service;
+
+import news.model.NewsArticle;
+import org.springframework.data.domain.Page;
+
+/**
+ * A news page together with its pre-encoded response body, so repeat requests skip
+ * serialization and compression.
+ *
+ * @param page the page itself
+ * @param json the page serialized as JSON
+ * @param gzip the gzip'd JSON, or null when the body is too small to be worth compressing
+ * @param etag strong entity tag of the JSON body, derived from its bytes, including quotes
+ */
+public record RenderedNewsPage(Page<NewsArticle> page, byte[] json, byte[] gzip, String etag) {
+
+  public static final String GZIP_ETAG_SUFFIX = "-gzip";
+
+  /**
+   * Strong entity tag of the gzip body. A strong tag identifies the exact bytes, so each content
+   * coding gets its own.
+   */
+  public String gzipEtag() {
+    return etag.substring(0, etag.length() - 1) + GZIP_ETAG_SUFFIX + "\"";
+  }
+}
@@ -0,0 +1,181 @@
+package news.api.controller;
+
+import news.api.dto.CursorPage;
+import news.api.dto.NewsCursor;
+import news.api.dto.NewsFilter;
+import news.api.service.NewsService;
+import news.api.service.RenderedNewsPage;
+import news.model.NewsArticle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class NewsControllerTest {
+
+  @Mock
+  private NewsService newsService;
+
+  @InjectMocks
+  private NewsController newsController;
+
+  private final Pageable pageable = PageRequest.of(0, 10);
+  private final byte[] json = "{\"content\":[]}".getBytes();
+  private final byte[] gzip = new byte[] {1, 2, 3};
+  private RenderedNewsPage rendered;
+
+  @BeforeEach
+  void setUp() {
+    rendered = new RenderedNewsPage(new PageImpl<NewsArticle>(List.of()), json, gzip, "\"abc\"");
+  }
+
+  @Test
+  void getNews_ShouldReturnJsonWithEtag() {
+    // Given
+    when(newsService.getRenderedNews(pageable, NewsFilter.NONE)).thenReturn(rendered);
+
+    // When
+    ResponseEntity<byte[]> response = newsController.getNews(pageable, null, "any", null, null);
+
+    // Then
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals("\"abc\"", response.getHeaders().getETag());
+    assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    assertSame(json, response.getBody());
+  }
+
+  @Test
+  void getNews_WithGzipAccepted_ShouldReturnPreCompressedBody() {
+    // Given
+    when(newsService.getRenderedNews(pageable, NewsFilter.NONE)).thenReturn(rendered);
+
+    // When
+    ResponseEntity<byte[]> response = newsController.getNews(pageable, null, "any", null, "gzip, deflate, br");
+
+    // Then
+    assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    assertEquals("\"abc-gzip\"", response.getHeaders().getETag());
+    assertSame(gzip, response.getBody());
+  }
+
+  @Test
+  void getNews_WithGzipRefused_ShouldReturnIdentityBody() {
+    // Given
+    when(newsService.getRenderedNews(pageable, NewsFilter.NONE)).thenReturn(rendered);
+
+    // When
+    ResponseEntity<byte[]> response = newsController.getNews(pageable, null, "any", null, "gzip;q=0, deflate");
+
+    // Then
+    assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    assertEquals("\"abc\"", response.getHeaders().getETag());
+    assertSame(json, response.getBody());
+  }
+
+  @Test
+  void acceptsGzip_ShouldHonourQualityValues() {
+    assertTrue(NewsController.acceptsGzip("gzip"));
+    assertTrue(NewsController.acceptsGzip("deflate, GZIP;q=0.5"));
+    assertTrue(NewsController.acceptsGzip("br, *"));
+    assertFalse(NewsController.acceptsGzip("gzip;q=0"));
+    assertFalse(NewsController.acceptsGzip("gzip; q=0.000, *"));
+    assertFalse(NewsController.acceptsGzip("*;q=0"));
+    assertFalse(NewsController.acceptsGzip("identity"));
+    assertFalse(NewsController.acceptsGzip(null));
+  }
+
+  @Test
+  void getNews_WithMatchingIfNoneMatch_ShouldReturnNotModified() {
+    // Given
+    when(newsService.getRenderedNews(pageable, NewsFilter.NONE)).thenReturn(rendered);
+
+    // When
+    ResponseEntity<byte[]> response = newsController.getNews(pageable, null, "any", "\"old\", W/\"abc\"", "gzip");
+
+    // Then
+    assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+    assertEquals("\"abc-gzip\"", response.getHeaders().getETag());
+    assertEquals(List.of(HttpHeaders.ACCEPT_ENCODING), response.getHeaders().getVary());
+    assertNull(response.getBody());
+  }
+
+  @Test
+  void getNews_WithGzipEtag_ShouldReturnNotModified() {
+    // Given
+    when(newsService.getRenderedNews(pageable, NewsFilter.NONE)).thenReturn(rendered);
+
+    // When
+    ResponseEntity<byte[]> response = newsController.getNews(pageable, null, "any", "\"abc-gzip\"", null);
+
+    // Then
+    assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+    assertEquals("\"abc\"", response.getHeaders().getETag());
+  }
+
+  @Test
+  void getNews_WithCategories_ShouldPassNormalizedFilter() {
+    // Given
+    NewsFilter filter = NewsFilter.of(List.of("Science", "Technology"), true);
+    when(newsService.getRenderedNews(pageable, filter)).thenReturn(rendered);
+
+    // When
+    newsController.getNews(pageable, List.of("technology", "Science"), "ALL", null, null);
+
+    // Then
+    verify(newsService).getRenderedNews(pageable, filter);
+  }
+
+  @Test
+  void getNews_WithUnknownMatch_ShouldBeBadRequest() {
+    assertThrows(ResponseStatusException.class,
+        () -> newsController.getNews(pageable, List.of("technology"), "some", null, null));
+  }
+
+  @Test
+  void getNewsAfter_ShouldDecodeOpaqueCursor() {
+    // Given
+    NewsCursor cursor = new NewsCursor(1700000000000L, "abc123");
+    CursorPage<NewsArticle> page = new CursorPage<>(List.of(), 5, null);
+    when(newsService.getNewsAfter(cursor, 5, NewsFilter.NONE)).thenReturn(page);
+
+    // When
+    ResponseEntity<CursorPage<NewsArticle>> response = newsController.getNewsAfter(cursor.encode(), 5, null, "any");
+
+    // Then
+    assertSame(page, response.getBody());
+  }
+
+  @Test
+  void getNewsAfter_WithEmptyCursor_ShouldStartFromNewest() {
+    // Given
+    CursorPage<NewsArticle> page = new CursorPage<>(List.of(), 10, null);
+    when(newsService.getNewsAfter(null, 10, NewsFilter.NONE)).thenReturn(page);
+
+    // When
+    ResponseEntity<CursorPage<NewsArticle>> response = newsController.getNewsAfter("", 10, null, "any");
+
+    // Then
+    assertSame(page, response.getBody());
+  }
+
+  @Test
+  void getNewsAfter_WithInvalidCursor_ShouldBeBadRequest() {
+    assertThrows(ResponseStatusException.class, () -> newsController.getNewsAfter("not-a-cursor", 10, null, "any"));
+    assertThrows(ResponseStatusException.class, () -> newsController.getNewsAfter("", 0, null, "any"));
+  }
+}
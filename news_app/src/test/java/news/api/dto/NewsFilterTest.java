@@ -0,0 +1,26 @@
+package news.api.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class NewsFilterTest {
+
+  @Test
+  void of_ShouldNormalizeLikeTheConsumerIndexes() {
+    // When
+    NewsFilter filter = NewsFilter.of(List.of(" Technology", "United\tStates\nPolitics", "technology"), false);
+
+    // Then
+    assertEquals(List.of("technology", "united states politics"), filter.getCategories());
+  }
+
+  @Test
+  void of_WithOnlyBlankCategories_ShouldBeNone() {
+    assertSame(NewsFilter.NONE, NewsFilter.of(Arrays.asList(" ", null), true));
+  }
+}
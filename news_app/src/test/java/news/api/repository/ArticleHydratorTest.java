@@ -0,0 +1,114 @@
+package news.api.repository;
+
+import news.api.repository.ArticleHydrator.HydrationResult;
+import news.model.NewsArticle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ArticleHydratorTest {
+
+  @Mock
+  private RedisTemplate<String, NewsArticle> redisTemplate;
+
+  @Mock
+  private ValueOperations<String, NewsArticle> valueOps;
+
+  private ArticleHydrator articleHydrator;
+
+  private NewsArticle article1;
+  private NewsArticle article2;
+  private NewsArticle article3;
+
+  @BeforeEach
+  void setUp() {
+    article1 = NewsArticle.builder().id("1").title("Breaking News").build();
+    article2 = NewsArticle.builder().id("2").title("Weather Update").build();
+    article3 = NewsArticle.builder().id("3").title("Technology News").build();
+
+    articleHydrator = new ArticleHydrator(redisTemplate, 2);
+    lenient().when(redisTemplate.opsForValue()).thenReturn(valueOps);
+  }
+
+  @Test
+  void hydrate_WithinOneChunk_ShouldUseSingleMultiGet() {
+    // Given
+    when(valueOps.multiGet(Arrays.asList("article:1", "article:2"))).thenReturn(Arrays.asList(article1, article2));
+
+    // When
+    HydrationResult result = articleHydrator.hydrate(Arrays.asList("1", "2"));
+
+    // Then
+    assertEquals(Arrays.asList(article1, article2), result.articles());
+    assertEquals(0, result.missing());
+    verify(redisTemplate, never()).executePipelined(any(SessionCallback.class));
+  }
+
+  @Test
+  void hydrate_WithSeveralChunks_ShouldPipelineMultiGets() {
+    // Given
+    when(redisTemplate.executePipelined(any(SessionCallback.class)))
+        .thenReturn(Arrays.asList(Arrays.asList(article1, null), Arrays.asList(article3)));
+
+    // When
+    HydrationResult result = articleHydrator.hydrate(Arrays.asList("1", "2", "3"));
+
+    // Then
+    assertEquals(Arrays.asList(article1, article3), result.articles());
+    assertEquals(1, result.missing());
+    verify(valueOps, never()).multiGet(anyCollection());
+  }
+
+  @Test
+  void hydrate_WithMissingValues_ShouldCountThem() {
+    // Given
+    when(valueOps.multiGet(Arrays.asList("article:1", "article:2"))).thenReturn(Arrays.asList(null, null));
+
+    // When
+    HydrationResult result = articleHydrator.hydrate(Arrays.asList("1", "2"));
+
+    // Then
+    assertTrue(result.articles().isEmpty());
+    assertEquals(2, result.missing());
+  }
+
+  @Test
+  void hydrate_WithNoIds_ShouldNotCallRedis() {
+    // When
+    HydrationResult result = articleHydrator.hydrate(Collections.emptyList());
+
+    // Then
+    assertTrue(result.articles().isEmpty());
+    verifyNoInteractions(redisTemplate);
+  }
+
+  @Test
+  void hydrateSingle_ShouldReturnArticleOrNull() {
+    // Given
+    when(valueOps.multiGet(List.of("article:1"))).thenReturn(Arrays.asList(article1));
+    when(valueOps.multiGet(List.of("article:999"))).thenReturn(Arrays.asList((NewsArticle) null));
+
+    // When / Then
+    assertSame(article1, articleHydrator.hydrate("1"));
+    assertNull(articleHydrator.hydrate("999"));
+  }
+
+  @Test
+  void constructor_WithNonPositiveChunkSize_ShouldFail() {
+    assertThrows(IllegalArgumentException.class, () -> new ArticleHydrator(redisTemplate, 0));
+  }
+}
@@ -0,0 +1,209 @@
+package news.api.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import news.api.dto.NewsCursor;
+import news.api.repository.ArticleIndexRepository.IndexedId;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ArticleIndexRepositoryTest {
+
+  @Mock
+  private StringRedisTemplate stringRedisTemplate;
+
+  @Mock
+  private ZSetOperations<String, String> zSetOps;
+
+  @Mock
+  private ValueOperations<String, String> valueOps;
+
+  @InjectMocks
+  private ArticleIndexRepository articleIndexRepository;
+
+  @BeforeEach
+  void setUp() {
+    lenient().when(stringRedisTemplate.opsForZSet()).thenReturn(zSetOps);
+    lenient().when(stringRedisTemplate.opsForValue()).thenReturn(valueOps);
+  }
+
+  @Test
+  void findIds_OnLexicographicIndex_ShouldStripSortValue() {
+    // Given
+    when(zSetOps.range("articles:by-title", 10, 11))
+        .thenReturn(new LinkedHashSet<>(List.of("Breaking News\u00001", "\u00002")));
+
+    // When
+    List<String> ids = articleIndexRepository.findIds(ArticleSortField.TITLE, 10, 2, false);
+
+    // Then
+    assertEquals(List.of("1", "2"), ids);
+  }
+
+  @Test
+  void categoryIndexKey_WithSingleCategory_ShouldUseCategoryIndex() {
+    // When
+    String key = articleIndexRepository.categoryIndexKey(List.of("technology"), true);
+
+    // Then
+    assertEquals("articles:category:technology", key);
+    verifyNoInteractions(stringRedisTemplate);
+  }
+
+  @Test
+  void categoryIndexKey_WithAnyMatch_ShouldBuildUnionAndRenameItIntoPlace() {
+    // Given
+    String destKey = "articles:filter:any:science|technology";
+    String versionKey = "articles:filter-version:any:science|technology";
+    when(valueOps.multiGet(List.of("articles:version", versionKey))).thenReturn(Arrays.asList("7", null));
+    when(zSetOps.unionAndStore(eq("articles:category:science"), eq(List.of("articles:category:technology")),
+        startsWith("articles:filter-build:"), eq(Aggregate.MAX))).thenReturn(4L);
+
+    // When
+    String key = articleIndexRepository.categoryIndexKey(List.of("science", "technology"), false);
+
+    // Then
+    assertEquals(destKey, key);
+    ArgumentCaptor<String> buildKey = ArgumentCaptor.forClass(String.class);
+    verify(stringRedisTemplate).expire(buildKey.capture(), eq(ArticleIndexRepository.CATEGORY_FILTER_TTL));
+    verify(stringRedisTemplate).rename(buildKey.getValue(), destKey);
+    verify(valueOps).set(versionKey, "7", ArticleIndexRepository.CATEGORY_FILTER_VERSION_TTL);
+  }
+
+  @Test
+  void categoryIndexKey_WithAllMatch_ShouldBuildIntersection() {
+    // Given
+    when(valueOps.multiGet(anyList())).thenReturn(Arrays.asList(null, null));
+
+    // When
+    articleIndexRepository.categoryIndexKey(List.of("science", "technology"), true);
+
+    // Then, an empty result leaves nothing to rename and drops the previous one
+    verify(zSetOps).intersectAndStore(eq("articles:category:science"), eq(List.of("articles:category:technology")),
+        startsWith("articles:filter-build:"), eq(Aggregate.MAX));
+    verify(stringRedisTemplate, never()).rename(anyString(), anyString());
+    verify(stringRedisTemplate).delete("articles:filter:all:science|technology");
+    verify(valueOps).set("articles:filter-version:all:science|technology", "0",
+        ArticleIndexRepository.CATEGORY_FILTER_VERSION_TTL);
+  }
+
+  @Test
+  void categoryIndexKey_WithWarmFilter_ShouldNotStorePerPage() {
+    // Given, built at the current articles:version
+    when(valueOps.multiGet(List.of("articles:version", "articles:filter-version:any:science|technology")))
+        .thenReturn(List.of("7", "7"));
+
+    // When
+    for (int page = 0; page < 3; page++) {
+      assertEquals("articles:filter:any:science|technology",
+          articleIndexRepository.categoryIndexKey(List.of("science", "technology"), false));
+    }
+
+    // Then
+    verifyNoInteractions(zSetOps);
+    verify(stringRedisTemplate, never()).rename(anyString(), anyString());
+    verify(valueOps, never()).set(anyString(), anyString(), any(Duration.class));
+  }
+
+  @Test
+  void categoryIndexKey_AfterVersionBump_ShouldRebuild() {
+    // Given, built before the consumer stored more articles
+    when(valueOps.multiGet(anyList())).thenReturn(List.of("8", "7"));
+    when(zSetOps.unionAndStore(anyString(), anyList(), anyString(), eq(Aggregate.MAX))).thenReturn(5L);
+
+    // When
+    articleIndexRepository.categoryIndexKey(List.of("science", "technology"), false);
+
+    // Then
+    verify(stringRedisTemplate).rename(startsWith("articles:filter-build:"), eq("articles:filter:any:science|technology"));
+    verify(valueOps).set("articles:filter-version:any:science|technology", "8",
+        ArticleIndexRepository.CATEGORY_FILTER_VERSION_TTL);
+  }
+
+  @Test
+  void categoryFilterKey_ShouldKeepCategoriesWithSeparatorsApart() {
+    // When
+    String first = ArticleIndexRepository.categoryFilterKey(List.of("a|b", "c"), false);
+    String second = ArticleIndexRepository.categoryFilterKey(List.of("a", "b|c"), false);
+    String third = ArticleIndexRepository.categoryFilterKey(List.of("a\\", "b"), false);
+    String fourth = ArticleIndexRepository.categoryFilterKey(List.of("a\\|b"), false);
+
+    // Then
+    assertEquals("articles:filter:any:a\\|b|c", first);
+    assertEquals("articles:filter:any:a|b\\|c", second);
+    assertNotEquals(first, second);
+    assertNotEquals(third, fourth);
+  }
+
+  @Test
+  void findAfter_WithoutCursor_ShouldReturnNewestEntries() {
+    // Given
+    when(zSetOps.reverseRangeWithScores("articles:by-date", 0, 1)).thenReturn(tuples("c", 300, "b", 200));
+
+    // When
+    List<IndexedId> entries = articleIndexRepository.findAfter("articles:by-date", null, 2);
+
+    // Then
+    assertEquals(List.of(new IndexedId("c", 300), new IndexedId("b", 200)), entries);
+  }
+
+  @Test
+  void findAfter_WithCursor_ShouldContinueBelowCursorIncludingTies() {
+    // Given
+    NewsCursor cursor = new NewsCursor(200, "m");
+    // Ties on pubDate 200 come back in descending member order
+    when(zSetOps.reverseRangeByScore("articles:by-date", 200.0, 200.0))
+        .thenReturn(new LinkedHashSet<>(List.of("z", "m", "f")));
+    when(zSetOps.reverseRangeByScoreWithScores("articles:by-date", Double.NEGATIVE_INFINITY, Math.nextDown(200.0), 0, 2))
+        .thenReturn(tuples("x", 100, "a", 50));
+
+    // When
+    List<IndexedId> entries = articleIndexRepository.findAfter("articles:by-date", cursor, 3);
+
+    // Then
+    assertEquals(List.of(new IndexedId("f", 200), new IndexedId("x", 100), new IndexedId("a", 50)), entries);
+  }
+
+  @Test
+  void findAfter_WithEnoughTies_ShouldNotReadOlderEntries() {
+    // Given
+    NewsCursor cursor = new NewsCursor(200, "z");
+    when(zSetOps.reverseRangeByScore("articles:by-date", 200.0, 200.0))
+        .thenReturn(new LinkedHashSet<>(List.of("z", "m", "f")));
+
+    // When
+    List<IndexedId> entries = articleIndexRepository.findAfter("articles:by-date", cursor, 1);
+
+    // Then
+    assertEquals(List.of(new IndexedId("m", 200)), entries);
+    verify(zSetOps, never()).reverseRangeByScoreWithScores(anyString(), anyDouble(), anyDouble(), anyLong(), anyLong());
+  }
+
+  private static Set<TypedTuple<String>> tuples(String id1, double score1, String id2, double score2) {
+    Set<TypedTuple<String>> tuples = new LinkedHashSet<>();
+    tuples.add(new DefaultTypedTuple<>(id1, score1));
+    tuples.add(new DefaultTypedTuple<>(id2, score2));
+    return tuples;
+  }
+}
@@ -1,6 +1,10 @@
 package news.api.repository;
 
-import news.api.dto.NewsArticle;
+import news.api.dto.CursorPage;
+import news.api.dto.NewsCursor;
+import news.api.dto.NewsFilter;
+import news.api.repository.ArticleIndexRepository.IndexedId;
+import news.model.NewsArticle;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,24 +15,24 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.ValueOperations;
+import news.api.repository.ArticleHydrator.HydrationResult;
 
 import java.time.LocalDateTime;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class NewsRepositoryTest {
 
   @Mock
-  private RedisTemplate<String, NewsArticle> redisTemplate;
+  private ArticleIndexRepository articleIndexRepository;
 
   @Mock
-  private ValueOperations<String, NewsArticle> valueOps;
+  private ArticleHydrator articleHydrator;
 
   @InjectMocks
   private NewsRepository newsRepository;
@@ -36,7 +40,7 @@ public class NewsRepositoryTest {
   private NewsArticle article1;
   private NewsArticle article2;
   private NewsArticle article3;
-  private Set<String> articleKeys;
+  private List<String> articleIds;
 
   @BeforeEach
   void setUp() {
@@ -59,14 +63,8 @@ public class NewsRepositoryTest {
     article3.setCreator("Bob Johnson");
     article3.setPublishedAt(LocalDateTime.now().minusHours(3));
 
-    // Setup keys
-    articleKeys = new HashSet<>();
-    articleKeys.add("article:1");
-    articleKeys.add("article:2");
-    articleKeys.add("article:3");
-
-    // Setup Redis template mock
-    when(redisTemplate.opsForValue()).thenReturn(valueOps);
+    // Ids in pubDate desc order, as returned by the index
+    articleIds = Arrays.asList("1", "2", "3");
   }
 
   @Test
@@ -74,10 +72,9 @@ public class NewsRepositoryTest {
     // Given
     Pageable pageable = PageRequest.of(0, 10);
 
-    when(redisTemplate.keys("article:*")).thenReturn(articleKeys);
-    when(valueOps.get("article:1")).thenReturn(article1);
-    when(valueOps.get("article:2")).thenReturn(article2);
-    when(valueOps.get("article:3")).thenReturn(article3);
+    when(articleIndexRepository.count(ArticleSortField.PUB_DATE)).thenReturn(3L);
+    when(articleIndexRepository.findIds(ArticleSortField.PUB_DATE, 0, 10, true)).thenReturn(articleIds);
+    when(articleHydrator.hydrate(articleIds)).thenReturn(hydrated(article1, article2, article3));
 
     // When
     Page<NewsArticle> result = newsRepository.findAll(pageable);
@@ -91,65 +88,102 @@ public class NewsRepositoryTest {
     assertEquals("2", result.getContent().get(1).getId());
     assertEquals("3", result.getContent().get(2).getId());
 
-    verify(redisTemplate).keys("article:*");
-    verify(valueOps).get("article:1");
-    verify(valueOps).get("article:2");
-    verify(valueOps).get("article:3");
+    verify(articleHydrator).hydrate(articleIds);
   }
 
   @Test
-  void findAll_WithSortByTitle_ShouldReturnArticlesSortedByTitle() {
+  void findAll_WithSortByPubDateAsc_ShouldReadIndexAscending() {
     // Given
-    Pageable pageable = PageRequest.of(0, 10, Sort.by("title").ascending());
+    Pageable pageable = PageRequest.of(0, 10, Sort.by("pubDate").ascending());
 
-    when(redisTemplate.keys("article:*")).thenReturn(articleKeys);
-    when(valueOps.get("article:1")).thenReturn(article1);
-    when(valueOps.get("article:2")).thenReturn(article2);
-    when(valueOps.get("article:3")).thenReturn(article3);
+    when(articleIndexRepository.count(ArticleSortField.PUB_DATE)).thenReturn(3L);
+    when(articleIndexRepository.findIds(ArticleSortField.PUB_DATE, 0, 10, false)).thenReturn(Arrays.asList("3", "2", "1"));
+    when(articleHydrator.hydrate(Arrays.asList("3", "2", "1"))).thenReturn(hydrated(article3, article2, article1));
 
     // When
     Page<NewsArticle> result = newsRepository.findAll(pageable);
 
     // Then
-    assertEquals(3, result.getTotalElements());
+    assertEquals("3", result.getContent().get(0).getId());
+    assertEquals("1", result.getContent().get(2).getId());
+  }
+
+  @Test
+  void findAll_WithSortByTitle_ShouldPageThroughTitleIndex() {
+    // Given
+    Pageable pageable = PageRequest.of(0, 10, Sort.by("title").ascending());
 
     // Sorted by title asc: Breaking News, Technology News, Weather Update
+    when(articleIndexRepository.count(ArticleSortField.TITLE)).thenReturn(3L);
+    when(articleIndexRepository.findIds(ArticleSortField.TITLE, 0, 10, false)).thenReturn(Arrays.asList("1", "3", "2"));
+    when(articleHydrator.hydrate(Arrays.asList("1", "3", "2"))).thenReturn(hydrated(article1, article3, article2));
+
+    // When
+    Page<NewsArticle> result = newsRepository.findAll(pageable);
+
+    // Then
+    assertEquals(3, result.getTotalElements());
     assertEquals("Breaking News", result.getContent().get(0).getTitle());
     assertEquals("Technology News", result.getContent().get(1).getTitle());
     assertEquals("Weather Update", result.getContent().get(2).getTitle());
+    verify(articleIndexRepository, never()).findAllIds();
   }
 
   @Test
-  void findAll_WithSortByCreatorDesc_ShouldReturnArticlesSortedByCreatorDesc() {
+  void findAll_WithSortByCreatorDesc_ShouldPageThroughCreatorIndex() {
     // Given
     Pageable pageable = PageRequest.of(0, 10, Sort.by("creator").descending());
 
-    when(redisTemplate.keys("article:*")).thenReturn(articleKeys);
-    when(valueOps.get("article:1")).thenReturn(article1);
-    when(valueOps.get("article:2")).thenReturn(article2);
-    when(valueOps.get("article:3")).thenReturn(article3);
+    // Sorted by creator desc: John Doe, Jane Smith, Bob Johnson
+    when(articleIndexRepository.count(ArticleSortField.CREATOR)).thenReturn(3L);
+    when(articleIndexRepository.findIds(ArticleSortField.CREATOR, 0, 10, true)).thenReturn(articleIds);
+    when(articleHydrator.hydrate(articleIds)).thenReturn(hydrated(article1, article2, article3));
 
     // When
     Page<NewsArticle> result = newsRepository.findAll(pageable);
 
     // Then
     assertEquals(3, result.getTotalElements());
-
-    // Sorted by creator desc: John Doe, Jane Smith, Bob Johnson
     assertEquals("John Doe", result.getContent().get(0).getCreator());
     assertEquals("Jane Smith", result.getContent().get(1).getCreator());
     assertEquals("Bob Johnson", result.getContent().get(2).getCreator());
   }
 
+  @Test
+  void findAll_WithMultiFieldSort_ShouldFallBackToInMemorySort() {
+    // Given
+    NewsArticle article4 = new NewsArticle();
+    article4.setId("4");
+    article4.setTitle("Breaking News");
+    article4.setPublishedAt(LocalDateTime.now().minusHours(4)); // No creator
+
+    Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Order.asc("title"), Sort.Order.desc("creator")));
+    List<String> allIds = Arrays.asList("1", "2", "3", "4");
+
+    when(articleIndexRepository.findAllIds()).thenReturn(allIds);
+    when(articleHydrator.hydrate(allIds)).thenReturn(hydrated(article1, article2, article3, article4));
+
+    // When
+    Page<NewsArticle> result = newsRepository.findAll(pageable);
+
+    // Then
+    assertEquals(4, result.getTotalElements());
+
+    // Title asc first, then creator desc with the missing creator last
+    assertEquals("1", result.getContent().get(0).getId());
+    assertEquals("4", result.getContent().get(1).getId());
+    assertEquals("3", result.getContent().get(2).getId());
+    assertEquals("2", result.getContent().get(3).getId());
+  }
+
   @Test
   void findAll_WithPagination_ShouldReturnCorrectPage() {
     // Given
     Pageable pageable = PageRequest.of(1, 1); // Second page, 1 item per page
 
-    when(redisTemplate.keys("article:*")).thenReturn(articleKeys);
-    when(valueOps.get("article:1")).thenReturn(article1);
-    when(valueOps.get("article:2")).thenReturn(article2);
-    when(valueOps.get("article:3")).thenReturn(article3);
+    when(articleIndexRepository.count(ArticleSortField.PUB_DATE)).thenReturn(3L);
+    when(articleIndexRepository.findIds(ArticleSortField.PUB_DATE, 1, 1, true)).thenReturn(List.of("2"));
+    when(articleHydrator.hydrate(List.of("2"))).thenReturn(hydrated(article2));
 
     // When
     Page<NewsArticle> result = newsRepository.findAll(pageable);
@@ -161,15 +195,47 @@ public class NewsRepositoryTest {
     assertEquals("2", result.getContent().get(0).getId()); // Second article on second page
   }
 
+  @Test
+  void findAll_WithPageBeyondIndex_ShouldNotFetchArticles() {
+    // Given
+    Pageable pageable = PageRequest.of(5, 10);
+
+    when(articleIndexRepository.count(ArticleSortField.PUB_DATE)).thenReturn(3L);
+
+    // When
+    Page<NewsArticle> result = newsRepository.findAll(pageable);
+
+    // Then
+    assertTrue(result.getContent().isEmpty());
+    assertEquals(3, result.getTotalElements());
+    verify(articleIndexRepository, never()).findIds(any(ArticleSortField.class), anyLong(), anyInt(), anyBoolean());
+    verifyNoInteractions(articleHydrator);
+  }
+
+  @Test
+  void findAll_WithEmptyIndex_ShouldReturnEmptyPage() {
+    // Given
+    Pageable pageable = PageRequest.of(0, 10);
+
+    when(articleIndexRepository.count(ArticleSortField.PUB_DATE)).thenReturn(0L);
+
+    // When
+    Page<NewsArticle> result = newsRepository.findAll(pageable);
+
+    // Then
+    assertEquals(0, result.getTotalElements());
+    assertTrue(result.getContent().isEmpty());
+  }
+
   @Test
   void findAll_WithNullValues_ShouldSkipNullArticles() {
     // Given
     Pageable pageable = PageRequest.of(0, 10);
 
-    when(redisTemplate.keys("article:*")).thenReturn(articleKeys);
-    when(valueOps.get("article:1")).thenReturn(article1);
-    when(valueOps.get("article:2")).thenReturn(null); // Null article
-    when(valueOps.get("article:3")).thenReturn(article3);
+    when(articleIndexRepository.count(ArticleSortField.PUB_DATE)).thenReturn(3L);
+    when(articleIndexRepository.findIds(ArticleSortField.PUB_DATE, 0, 10, true)).thenReturn(articleIds);
+    // article2 expired after it was indexed
+    when(articleHydrator.hydrate(articleIds)).thenReturn(new HydrationResult(Arrays.asList(article1, article3), 1));
 
     // When
     Page<NewsArticle> result = newsRepository.findAll(pageable);
@@ -184,10 +250,82 @@ public class NewsRepositoryTest {
     assertFalse(result.getContent().stream().anyMatch(a -> a.getId().equals("2")));
   }
 
+  @Test
+  void findAll_WithCategoryFilter_ShouldPageThroughCategoryIndex() {
+    // Given
+    Pageable pageable = PageRequest.of(1, 2, Sort.by("pubDate").descending());
+    NewsFilter filter = NewsFilter.of(List.of("Technology", "Science"), false);
+
+    when(articleIndexRepository.categoryIndexKey(List.of("science", "technology"), false)).thenReturn("filter-key");
+    when(articleIndexRepository.count("filter-key")).thenReturn(3L);
+    when(articleIndexRepository.findIds("filter-key", 2, 2, true)).thenReturn(List.of("3"));
+    when(articleHydrator.hydrate(List.of("3"))).thenReturn(hydrated(article3));
+
+    // When
+    Page<NewsArticle> result = newsRepository.findAll(pageable, filter);
+
+    // Then
+    assertEquals(3, result.getTotalElements());
+    assertEquals("3", result.getContent().get(0).getId());
+    verify(articleIndexRepository, never()).findAllIds(anyString());
+  }
+
+  @Test
+  void findAll_WithCategoryFilterAndTitleSort_ShouldSortMatchesInMemory() {
+    // Given
+    Pageable pageable = PageRequest.of(0, 10, Sort.by("title").ascending());
+    NewsFilter filter = NewsFilter.of(List.of("Technology"), true);
+
+    when(articleIndexRepository.categoryIndexKey(List.of("technology"), true)).thenReturn("category-key");
+    when(articleIndexRepository.findAllIds("category-key")).thenReturn(List.of("2", "3"));
+    when(articleHydrator.hydrate(List.of("2", "3"))).thenReturn(hydrated(article2, article3));
+
+    // When
+    Page<NewsArticle> result = newsRepository.findAll(pageable, filter);
+
+    // Then
+    assertEquals(2, result.getTotalElements());
+    assertEquals("Technology News", result.getContent().get(0).getTitle());
+    assertEquals("Weather Update", result.getContent().get(1).getTitle());
+  }
+
+  @Test
+  void findAfter_WithFullSlice_ShouldReturnCursorOfLastIndexedEntry() {
+    // Given
+    NewsCursor cursor = new NewsCursor(500, "0");
+    when(articleIndexRepository.findAfter("articles:by-date", cursor, 2))
+        .thenReturn(List.of(new IndexedId("1", 400), new IndexedId("2", 300)));
+    // article2 expired after it was indexed
+    when(articleHydrator.hydrate(List.of("1", "2"))).thenReturn(new HydrationResult(List.of(article1), 1));
+
+    // When
+    CursorPage<NewsArticle> result = newsRepository.findAfter(cursor, 2, NewsFilter.NONE);
+
+    // Then
+    assertEquals(List.of(article1), result.getContent());
+    assertEquals(new NewsCursor(300, "2"), NewsCursor.decode(result.getNextCursor()));
+  }
+
+  @Test
+  void findAfter_AtEndOfFeed_ShouldReturnNoCursor() {
+    // Given
+    NewsFilter filter = NewsFilter.of(List.of("Technology"), false);
+    when(articleIndexRepository.categoryIndexKey(List.of("technology"), false)).thenReturn("category-key");
+    when(articleIndexRepository.findAfter("category-key", null, 10)).thenReturn(List.of(new IndexedId("3", 100)));
+    when(articleHydrator.hydrate(List.of("3"))).thenReturn(hydrated(article3));
+
+    // When
+    CursorPage<NewsArticle> result = newsRepository.findAfter(null, 10, filter);
+
+    // Then
+    assertEquals(1, result.getContent().size());
+    assertNull(result.getNextCursor());
+  }
+
   @Test
   void findById_ShouldReturnArticle() {
     // Given
-    when(valueOps.get("article:1")).thenReturn(article1);
+    when(articleHydrator.hydrate("1")).thenReturn(article1);
 
     // When
     NewsArticle result = newsRepository.findById("1");
@@ -196,19 +334,23 @@ public class NewsRepositoryTest {
     assertNotNull(result);
     assertEquals("1", result.getId());
     assertEquals("Breaking News", result.getTitle());
-    verify(valueOps).get("article:1");
+    verify(articleHydrator).hydrate("1");
   }
 
   @Test
   void findById_WithNonExistentId_ShouldReturnNull() {
     // Given
-    when(valueOps.get("article:999")).thenReturn(null);
+    when(articleHydrator.hydrate("999")).thenReturn(null);
 
     // When
     NewsArticle result = newsRepository.findById("999");
 
     // Then
     assertNull(result);
-    verify(valueOps).get("article:999");
+    verify(articleHydrator).hydrate("999");
+  }
+
+  private static HydrationResult hydrated(NewsArticle... articles) {
+    return new HydrationResult(Arrays.asList(articles), 0);
   }
 }
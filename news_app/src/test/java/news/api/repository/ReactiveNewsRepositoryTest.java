@@ -0,0 +1,179 @@
+package news.api.repository;
+
+import news.api.dto.NewsFilter;
+import news.model.NewsArticle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Range;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.data.redis.core.ReactiveZSetOperations;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveNewsRepositoryTest {
+
+  @Mock
+  private ReactiveStringRedisTemplate reactiveStringRedisTemplate;
+
+  @Mock
+  private ReactiveZSetOperations<String, String> zSetOps;
+
+  @Mock
+  private ReactiveRedisTemplate<String, NewsArticle> reactiveRedisTemplate;
+
+  @Mock
+  private ReactiveValueOperations<String, NewsArticle> valueOps;
+
+  @Mock
+  private ReactiveValueOperations<String, String> stringValueOps;
+
+  @Mock
+  private NewsRepository newsRepository;
+
+  private ReactiveNewsRepository reactiveNewsRepository;
+
+  @BeforeEach
+  void setUp() {
+    lenient().when(reactiveStringRedisTemplate.opsForZSet()).thenReturn(zSetOps);
+    lenient().when(reactiveStringRedisTemplate.opsForValue()).thenReturn(stringValueOps);
+    lenient().when(reactiveRedisTemplate.opsForValue()).thenReturn(valueOps);
+    reactiveNewsRepository = new ReactiveNewsRepository(
+        reactiveStringRedisTemplate, reactiveRedisTemplate, newsRepository, 2);
+  }
+
+  @Test
+  void findAll_WithDefaultSort_ShouldReadPubDateIndexAndHydrateInChunks() {
+    // Given
+    NewsArticle first = article("1");
+    NewsArticle third = article("3");
+    when(zSetOps.size("articles:by-date")).thenReturn(Mono.just(40L));
+    when(zSetOps.reverseRange("articles:by-date", Range.closed(10L, 14L))).thenReturn(Flux.just("1", "2", "3"));
+    when(valueOps.multiGet(List.of("article:1", "article:2"))).thenReturn(Mono.just(Arrays.asList(first, null)));
+    when(valueOps.multiGet(List.of("article:3"))).thenReturn(Mono.just(List.of(third)));
+
+    // When
+    Page<NewsArticle> page = reactiveNewsRepository.findAll(PageRequest.of(2, 5), NewsFilter.NONE).block();
+
+    // Then
+    assertEquals(List.of(first, third), page.getContent());
+    assertEquals(40, page.getTotalElements());
+  }
+
+  @Test
+  void findAll_SortedByTitle_ShouldStripSortValue() {
+    // Given
+    NewsArticle article = article("7");
+    when(zSetOps.size("articles:by-title")).thenReturn(Mono.just(1L));
+    when(zSetOps.range("articles:by-title", Range.closed(0L, 9L))).thenReturn(Flux.just("Breaking News\u00007"));
+    when(valueOps.multiGet(List.of("article:7"))).thenReturn(Mono.just(List.of(article)));
+
+    // When
+    Page<NewsArticle> page = reactiveNewsRepository.findAll(
+        PageRequest.of(0, 10, Sort.by("title")), NewsFilter.NONE).block();
+
+    // Then
+    assertEquals(List.of(article), page.getContent());
+  }
+
+  @Test
+  void findAll_PastTheEnd_ShouldNotHydrate() {
+    // Given
+    when(zSetOps.size("articles:by-date")).thenReturn(Mono.just(3L));
+    when(zSetOps.reverseRange("articles:by-date", Range.closed(10L, 19L))).thenReturn(Flux.empty());
+
+    // When
+    Page<NewsArticle> page = reactiveNewsRepository.findAll(PageRequest.of(1, 10), NewsFilter.NONE).block();
+
+    // Then
+    assertEquals(0, page.getNumberOfElements());
+    assertEquals(3, page.getTotalElements());
+    verifyNoInteractions(reactiveRedisTemplate);
+  }
+
+  @Test
+  void findAll_WithColdCategoryFilter_ShouldBuildAndRenameUnion() {
+    // Given
+    String destKey = "articles:filter:any:science|technology";
+    String versionKey = "articles:filter-version:any:science|technology";
+    when(stringValueOps.multiGet(List.of("articles:version", versionKey))).thenReturn(Mono.just(Arrays.asList("7", null)));
+    when(zSetOps.unionAndStore(eq("articles:category:science"), eq(List.of("articles:category:technology")),
+        startsWith("articles:filter-build:"), eq(Aggregate.MAX))).thenReturn(Mono.just(4L));
+    when(reactiveStringRedisTemplate.expire(startsWith("articles:filter-build:"), eq(ArticleIndexRepository.CATEGORY_FILTER_TTL)))
+        .thenReturn(Mono.just(true));
+    when(reactiveStringRedisTemplate.rename(startsWith("articles:filter-build:"), eq(destKey))).thenReturn(Mono.just(true));
+    when(stringValueOps.set(versionKey, "7", ArticleIndexRepository.CATEGORY_FILTER_VERSION_TTL)).thenReturn(Mono.just(true));
+    when(zSetOps.size(destKey)).thenReturn(Mono.just(0L));
+    when(zSetOps.reverseRange(destKey, Range.closed(0L, 9L))).thenReturn(Flux.empty());
+
+    // When
+    Page<NewsArticle> page = reactiveNewsRepository.findAll(PageRequest.of(0, 10),
+        NewsFilter.of(List.of("Science", "Technology"), false)).block();
+
+    // Then
+    assertEquals(0, page.getTotalElements());
+    verify(reactiveStringRedisTemplate).rename(startsWith("articles:filter-build:"), eq(destKey));
+    verify(stringValueOps).set(versionKey, "7", ArticleIndexRepository.CATEGORY_FILTER_VERSION_TTL);
+  }
+
+  @Test
+  void findAll_WithWarmCategoryFilter_ShouldNotStore() {
+    // Given
+    String destKey = "articles:filter:all:science|technology";
+    when(stringValueOps.multiGet(List.of("articles:version", "articles:filter-version:all:science|technology")))
+        .thenReturn(Mono.just(List.of("7", "7")));
+    when(zSetOps.size(destKey)).thenReturn(Mono.just(0L));
+    when(zSetOps.reverseRange(destKey, Range.closed(0L, 9L))).thenReturn(Flux.empty());
+
+    // When
+    reactiveNewsRepository.findAll(PageRequest.of(0, 10), NewsFilter.of(List.of("Science", "Technology"), true)).block();
+
+    // Then
+    verify(zSetOps, never()).intersectAndStore(anyString(), anyList(), anyString(), any(Aggregate.class));
+    verify(reactiveStringRedisTemplate, never()).rename(anyString(), anyString());
+  }
+
+  @Test
+  void findAll_WithMultiFieldSort_ShouldFallBackToBlockingRepository() {
+    // Given
+    PageRequest pageable = PageRequest.of(0, 10, Sort.by("creator", "title"));
+    Page<NewsArticle> expected = new PageImpl<>(List.of(article("1")), pageable, 1);
+    when(newsRepository.findAll(pageable, NewsFilter.NONE)).thenReturn(expected);
+
+    // When
+    Page<NewsArticle> page = reactiveNewsRepository.findAll(pageable, NewsFilter.NONE).block();
+
+    // Then
+    assertEquals(expected, page);
+    verifyNoInteractions(reactiveStringRedisTemplate);
+  }
+
+  @Test
+  void constructor_WithNonPositiveChunkSize_ShouldFail() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new ReactiveNewsRepository(reactiveStringRedisTemplate, reactiveRedisTemplate, newsRepository, 0));
+  }
+
+  private static NewsArticle article(String id) {
+    NewsArticle article = new NewsArticle();
+    article.setId(id);
+    return article;
+  }
+}
@@ -0,0 +1,117 @@
+package news.api.service;
+
+import news.api.dto.NewsFilter;
+import news.api.service.NewsPageCache.PageKey;
+import news.model.NewsArticle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class NewsPageCacheTest {
+
+  @Mock
+  private StringRedisTemplate stringRedisTemplate;
+
+  @Mock
+  private ValueOperations<String, String> valueOps;
+
+  @Mock
+  private Clock clock;
+
+  private NewsPageCache cache;
+
+  private final PageKey hotKey = PageKey.of(PageRequest.of(0, 10, Sort.by("pubDate").descending()), NewsFilter.NONE);
+  private final RenderedNewsPage hotPage = new RenderedNewsPage(
+      new PageImpl<>(List.of(NewsArticle.builder().id("1").build())), new byte[0], null, "\"etag\"");
+
+  @BeforeEach
+  void setUp() {
+    lenient().when(clock.millis()).thenReturn(Instant.parse("2025-01-01T00:00:00Z").toEpochMilli());
+    cache = new NewsPageCache(stringRedisTemplate, 2, Duration.ofSeconds(30), clock);
+    cache.onVersion(1);
+  }
+
+  @Test
+  void shouldReturnCachedPageForSameKey() {
+    cache.put(hotKey, 1, hotPage);
+
+    assertSame(hotPage, cache.get(PageKey.of(PageRequest.of(0, 10, Sort.by("pubDate").descending()), NewsFilter.NONE)));
+    assertNull(cache.get(PageKey.of(PageRequest.of(1, 10, Sort.by("pubDate").descending()), NewsFilter.NONE)));
+  }
+
+  @Test
+  void shouldExpireEntriesAfterTtl() {
+    cache.put(hotKey, 1, hotPage);
+    when(clock.millis()).thenReturn(Instant.parse("2025-01-01T00:00:30Z").toEpochMilli());
+
+    assertNull(cache.get(hotKey));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void shouldEvictLeastRecentlyUsedBeyondMaxSize() {
+    PageKey second = PageKey.of(PageRequest.of(1, 10), NewsFilter.NONE);
+    PageKey third = PageKey.of(PageRequest.of(2, 10), NewsFilter.NONE);
+
+    cache.put(hotKey, 1, hotPage);
+    cache.put(second, 1, hotPage);
+    cache.get(hotKey);
+    cache.put(third, 1, hotPage);
+
+    assertNotNull(cache.get(hotKey));
+    assertNull(cache.get(second));
+    assertNotNull(cache.get(third));
+  }
+
+  @Test
+  void shouldClearWhenVersionChanges() {
+    // Given
+    cache.put(hotKey, 1, hotPage);
+    when(stringRedisTemplate.opsForValue()).thenReturn(valueOps);
+    when(valueOps.get(NewsPageCache.VERSION_KEY)).thenReturn("2");
+
+    // When
+    cache.refreshVersion();
+
+    // Then
+    assertEquals(2, cache.version());
+    assertNull(cache.get(hotKey));
+  }
+
+  @Test
+  void shouldNotCachePageLoadedUnderOlderVersion() {
+    cache.onVersion(2);
+    cache.put(hotKey, 1, hotPage);
+
+    assertNull(cache.get(hotKey));
+  }
+
+  @Test
+  void shouldKeepEntriesWhenVersionCannotBeRead() {
+    // Given
+    cache.put(hotKey, 1, hotPage);
+    when(stringRedisTemplate.opsForValue()).thenThrow(new RuntimeException("Redis unavailable"));
+
+    // When
+    cache.refreshVersion();
+
+    // Then
+    assertSame(hotPage, cache.get(hotKey));
+  }
+}
@@ -0,0 +1,67 @@
+package news.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import news.model.NewsArticle;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.ByteArrayInputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NewsPageRendererTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  void render_ShouldSerializeOnceWithStableEtag() throws Exception {
+    // Given
+    NewsPageRenderer renderer = new NewsPageRenderer(objectMapper, 1024);
+    PageImpl<NewsArticle> page = new PageImpl<>(List.of(NewsArticle.builder().id("1").title("Breaking News").build()),
+        PageRequest.of(0, 10), 1);
+
+    // When
+    RenderedNewsPage first = renderer.render(page);
+    RenderedNewsPage second = renderer.render(page);
+
+    // Then
+    assertEquals("Breaking News", objectMapper.readTree(first.json()).at("/content/0/title").asText());
+    assertEquals(first.etag(), second.etag());
+    assertTrue(first.etag().startsWith("\"") && first.etag().endsWith("\""));
+    assertNull(first.gzip()); // Below the gzip threshold
+  }
+
+  @Test
+  void render_ShouldGzipLargeBodies() throws Exception {
+    // Given
+    NewsPageRenderer renderer = new NewsPageRenderer(objectMapper, 0);
+    PageImpl<NewsArticle> page = new PageImpl<>(Collections.nCopies(20,
+        NewsArticle.builder().id("1").title("Breaking News").build()), PageRequest.of(0, 20), 20);
+
+    // When
+    RenderedNewsPage rendered = renderer.render(page);
+
+    // Then
+    assertNotNull(rendered.gzip());
+    assertTrue(rendered.gzip().length < rendered.json().length);
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(rendered.gzip()))) {
+      assertArrayEquals(rendered.json(), in.readAllBytes());
+    }
+  }
+
+  @Test
+  void render_ShouldChangeEtagWhenContentChanges() {
+    NewsPageRenderer renderer = new NewsPageRenderer(objectMapper, 1024);
+
+    RenderedNewsPage before = renderer.render(
+        new PageImpl<>(List.of(NewsArticle.builder().id("1").build()), PageRequest.of(0, 10), 1));
+    RenderedNewsPage after = renderer.render(
+        new PageImpl<>(List.of(NewsArticle.builder().id("2").build()), PageRequest.of(0, 10), 1));
+
+    assertNotEquals(before.etag(), after.etag());
+  }
+}
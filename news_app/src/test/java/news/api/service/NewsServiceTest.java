@@ -1,12 +1,15 @@
 package news.api.service;
 
-import news.api.dto.NewsArticle;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import news.api.dto.NewsFilter;
 import news.api.repository.NewsRepository;
+import news.model.NewsArticle;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -20,6 +23,7 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,6 +32,12 @@ public class NewsServiceTest {
   @Mock
   private NewsRepository newsRepository;
 
+  @Mock
+  private NewsPageCache newsPageCache;
+
+  @Spy
+  private NewsPageRenderer newsPageRenderer = new NewsPageRenderer(new ObjectMapper(), 1024);
+
   @InjectMocks
   private NewsService newsService;
 
@@ -82,4 +92,71 @@ public class NewsServiceTest {
     assertSame(articlePage, result);
     verify(newsRepository).findAll(pageable);
   }
+
+  @Test
+  void getNews_WithCategoryFilter_ShouldPassFilterToRepository() {
+    // Given
+    Pageable pageable = PageRequest.of(0, 10, Sort.by("pubDate").descending());
+    NewsFilter filter = NewsFilter.of(List.of("Technology", "Science"), true);
+    articlePage = new PageImpl<>(articles, pageable, articles.size());
+
+    when(newsRepository.findAll(pageable, filter)).thenReturn(articlePage);
+
+    // When
+    Page<NewsArticle> result = newsService.getNews(pageable, filter);
+
+    // Then
+    assertSame(articlePage, result);
+    verify(newsRepository, never()).findAll(pageable);
+  }
+
+  @Test
+  void getNews_WithoutCategories_ShouldReturnUnfilteredFeed() {
+    // Given
+    Pageable pageable = PageRequest.of(0, 10);
+    articlePage = new PageImpl<>(articles, pageable, articles.size());
+
+    when(newsRepository.findAll(pageable)).thenReturn(articlePage);
+
+    // When
+    Page<NewsArticle> result = newsService.getNews(pageable, NewsFilter.of(List.of(" "), false));
+
+    // Then
+    assertSame(articlePage, result);
+  }
+
+  @Test
+  void getNews_WithCachedPage_ShouldNotHitRepository() {
+    // Given
+    Pageable pageable = PageRequest.of(0, 10, Sort.by("pubDate").descending());
+    articlePage = new PageImpl<>(articles, pageable, articles.size());
+
+    RenderedNewsPage rendered = new RenderedNewsPage(articlePage, new byte[0], null, "\"etag\"");
+    when(newsPageCache.get(NewsPageCache.PageKey.of(pageable, NewsFilter.NONE))).thenReturn(rendered);
+
+    // When
+    Page<NewsArticle> result = newsService.getAllNews(pageable);
+
+    // Then
+    assertSame(articlePage, result);
+    verifyNoInteractions(newsRepository);
+    verify(newsPageRenderer, never()).render(any());
+  }
+
+  @Test
+  void getNews_OnCacheMiss_ShouldCacheUnderVersionReadBeforeLoading() {
+    // Given
+    Pageable pageable = PageRequest.of(0, 10);
+    articlePage = new PageImpl<>(articles, pageable, articles.size());
+
+    when(newsPageCache.version()).thenReturn(7L);
+    when(newsRepository.findAll(pageable)).thenReturn(articlePage);
+
+    // When
+    newsService.getAllNews(pageable);
+
+    // Then
+    verify(newsPageCache).put(eq(NewsPageCache.PageKey.of(pageable, NewsFilter.NONE)), eq(7L),
+        argThat(rendered -> rendered.page() == articlePage && rendered.etag().startsWith("\"")));
+  }
 }
@@ -0,0 +1,143 @@
+package news.api.service;
+
+import news.api.repository.NewsRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+public class NewsStreamServiceTest {
+
+  @Mock
+  private NewsRepository newsRepository;
+
+  @Mock
+  private ObjectProvider<RedisMessageListenerContainer> listenerContainer;
+
+  @InjectMocks
+  private NewsStreamService newsStreamService;
+
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(newsStreamService, "queueSize", 2);
+    ReflectionTestUtils.setField(newsStreamService, "sendThreads", 2);
+    newsStreamService.startSending();
+  }
+
+  @AfterEach
+  void tearDown() {
+    release.countDown();
+    newsStreamService.stopSending();
+  }
+
+  @Test
+  void broadcast_ShouldNotWaitForASlowClient() throws Exception {
+    // Given
+    RecordingEmitter slow = new RecordingEmitter(release);
+    RecordingEmitter fast = new RecordingEmitter(null);
+    newsStreamService.subscribe(slow);
+    newsStreamService.subscribe(fast);
+
+    // When
+    newsStreamService.heartbeat();
+
+    // Then
+    assertTrue(fast.sent.await(5, TimeUnit.SECONDS));
+    assertTrue(slow.sending.await(5, TimeUnit.SECONDS));
+    assertEquals(2, newsStreamService.connectionCount());
+  }
+
+  @Test
+  void broadcast_ShouldCompleteClientsThatFallBehind() throws Exception {
+    // Given
+    RecordingEmitter slow = new RecordingEmitter(release);
+    newsStreamService.subscribe(slow);
+    newsStreamService.heartbeat();
+    assertTrue(slow.sending.await(5, TimeUnit.SECONDS));
+
+    // When, the first heartbeat is stuck in send and two more fill the queue
+    for (int i = 0; i < 3; i++) {
+      newsStreamService.heartbeat();
+    }
+
+    // Then
+    assertTrue(slow.completed);
+    assertEquals(0, newsStreamService.connectionCount());
+  }
+
+  @Test
+  void broadcast_ShouldDropClientsThatFailToReceive() throws Exception {
+    // Given
+    RecordingEmitter broken = new RecordingEmitter(null) {
+      @Override
+      public void send(SseEventBuilder builder) throws IOException {
+        throw new IOException("Broken pipe");
+      }
+    };
+    newsStreamService.subscribe(broken);
+
+    // When
+    newsStreamService.heartbeat();
+
+    // Then
+    assertTrue(broken.failed.await(5, TimeUnit.SECONDS));
+    assertEquals(0, newsStreamService.connectionCount());
+  }
+
+  // Sends block until released, the way a client with a full TCP window does
+  private static class RecordingEmitter extends SseEmitter {
+
+    private final CountDownLatch release;
+
+    final CountDownLatch sending = new CountDownLatch(1);
+
+    final CountDownLatch sent = new CountDownLatch(1);
+
+    final CountDownLatch failed = new CountDownLatch(1);
+
+    volatile boolean completed;
+
+    RecordingEmitter(CountDownLatch release) {
+      this.release = release;
+    }
+
+    @Override
+    public void send(SseEventBuilder builder) throws IOException {
+      sending.countDown();
+      if (release != null) {
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          throw new IOException(e);
+        }
+      }
+      sent.countDown();
+    }
+
+    @Override
+    public void complete() {
+      completed = true;
+    }
+
+    @Override
+    public void completeWithError(Throwable ex) {
+      failed.countDown();
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package news.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import news.api.dto.NewsFilter;
+import news.api.repository.ReactiveNewsRepository;
+import news.model.NewsArticle;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveNewsServiceTest {
+
+  @Mock
+  private ReactiveNewsRepository reactiveNewsRepository;
+
+  @Mock
+  private NewsPageCache newsPageCache;
+
+  @Spy
+  private NewsPageRenderer newsPageRenderer = new NewsPageRenderer(new ObjectMapper(), 1024);
+
+  @InjectMocks
+  private ReactiveNewsService reactiveNewsService;
+
+  @Test
+  void getRenderedNews_ShouldRenderOffTheRedisThread() {
+    // Given
+    Pageable pageable = PageRequest.of(0, 10);
+    Page<NewsArticle> page = new PageImpl<>(List.of(), pageable, 0);
+    when(reactiveNewsRepository.findAll(pageable, NewsFilter.NONE)).thenReturn(Mono.just(page));
+    AtomicReference<String> renderThread = new AtomicReference<>();
+    doAnswer(invocation -> {
+      renderThread.set(Thread.currentThread().getName());
+      return invocation.callRealMethod();
+    }).when(newsPageRenderer).render(any());
+
+    // When
+    RenderedNewsPage rendered = reactiveNewsService.getRenderedNews(pageable, NewsFilter.NONE).block();
+
+    // Then
+    assertSame(page, rendered.page());
+    assertTrue(renderThread.get().startsWith("boundedElastic"), renderThread.get());
+    verify(newsPageCache).put(any(), anyLong(), same(rendered));
+  }
+}
@@ -2,7 +2,7 @@
 import React, { useState, useEffect } from 'react';
 import Header from './components/Header';
 import NewsList from './components/NewsList';
-import { fetchNews } from './services/newsService';
+import { fetchNews, subscribeToNews } from './services/newsService';
 import './App.css';
 
 function App() {
@@ -31,6 +31,16 @@ function App() {
     loadArticles();
   }, [page, language]); // Re-fetch when page or language changes
 
+  // New articles are pushed by the server, only the first page shows them live
+  useEffect(() => {
+    if (page !== 0) {
+      return undefined;
+    }
+    return subscribeToNews((article) => {
+      setArticles((current) => [article, ...current.filter((a) => a.guid !== article.guid)].slice(0, 10));
+    });
+  }, [page]);
+
   const handleLanguageChange = (newLanguage) => {
     setLanguage(newLanguage);
   };
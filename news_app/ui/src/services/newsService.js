@@ -1,9 +1,13 @@
-
 const API_BASE_URL = process.env.REACT_APP_API_BASE_URL || 'http://localhost:8003';
 
-export const fetchNews = async (page = 0, size = 10, sort = 'pubDate,desc') => {
+export const fetchNews = async (page = 0, size = 10, sort = 'pubDate,desc', categories = [], match = 'any') => {
   try {
-    const response = await fetch(`${API_BASE_URL}/api/news?page=${page}&size=${size}&sort=${sort}`);
+    const params = new URLSearchParams({ page, size, sort });
+    categories.forEach((category) => params.append('category', category));
+    if (categories.length > 1) {
+      params.append('match', match);
+    }
+    const response = await fetch(`${API_BASE_URL}/api/news?${params}`);
 
     if (!response.ok) {
       throw new Error(`Error: ${response.status}`);
@@ -15,3 +19,10 @@ export const fetchNews = async (page = 0, size = 10, sort = 'pubDate,desc') => {
     throw error;
   }
 };
+
+// Calls onArticle for every article ingested after subscribing. Returns a function that closes the stream.
+export const subscribeToNews = (onArticle) => {
+  const source = new EventSource(`${API_BASE_URL}/api/news/stream`);
+  source.addEventListener('article', (event) => onArticle(JSON.parse(event.data)));
+  return () => source.close();
+};
@@ -0,0 +1,62 @@
+#!/usr/bin/env bash
+# Measures how fast the news consumer drains a backlog of articles.
+#
+#   1. Stop news-consumer and queue a backlog:   ingest-bench.sh produce 50000
+#   2. Start news-consumer with the setting under test, e.g.
+#        java -jar target/news_consumer.jar --app.kafka.consumer.concurrency=4
+#   3. Time the drain:                           ingest-bench.sh drain
+#
+# Every backlog uses fresh guids, so each article costs a real write instead of a duplicate check.
+# The drain is timed from the first consumed record, so consumer start-up is not counted.
+set -euo pipefail
+
+TOPIC=${TOPIC:-nyt.rss.articles}
+GROUP=${GROUP:-news-consumer-group}
+KAFKA_CONTAINER=${KAFKA_CONTAINER:-kafka}
+BOOTSTRAP=${BOOTSTRAP:-kafka:29092}
+
+lag() {
+  docker exec "$KAFKA_CONTAINER" kafka-consumer-groups --bootstrap-server "$BOOTSTRAP" \
+    --describe --group "$GROUP" 2>/dev/null \
+    | awk -v topic="$TOPIC" '$2 == topic && $6 ~ /^[0-9]+$/ { sum += $6 } END { print sum + 0 }'
+}
+
+produce() {
+  local articles=$1
+  local run
+  run=$(date +%s)
+  echo "Producing $articles articles to $TOPIC"
+  seq 1 "$articles" \
+    | awk -v run="$run" -v ts="$((run * 1000))" '{
+        printf "bench-%s-%d|{\"guid\":\"bench-%s-%d\",\"title\":\"Benchmark article %d\",\"pubDate\":%d,\"categories\":[\"benchmark\"]}\n",
+          run, $1, run, $1, $1, ts
+      }' \
+    | docker exec -i "$KAFKA_CONTAINER" kafka-console-producer --bootstrap-server "$BOOTSTRAP" \
+        --topic "$TOPIC" --property parse.key=true --property key.separator='|' >/dev/null
+  echo "Backlog is now $(lag) records"
+}
+
+drain() {
+  local initial current start end
+  initial=$(lag)
+  echo "Waiting for the consumer to start on a backlog of $initial records"
+  current=$initial
+  while [ "$current" -ge "$initial" ]; do
+    sleep 0.2
+    current=$(lag)
+  done
+  start=$(date +%s.%N)
+  while [ "$current" -gt 0 ]; do
+    sleep 0.5
+    current=$(lag)
+  done
+  end=$(date +%s.%N)
+  awk -v n="$initial" -v s="$start" -v e="$end" \
+    'BEGIN { printf "Drained %d records in %.1fs (%.0f records/s)\n", n, e - s, n / (e - s) }'
+}
+
+case "${1:-}" in
+  produce) produce "${2:-50000}" ;;
+  drain) drain ;;
+  *) echo "usage: $0 produce [articles] | drain" >&2; exit 1 ;;
+esac
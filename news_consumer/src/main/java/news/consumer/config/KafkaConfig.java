@@ -1,14 +1,32 @@
 package news.consumer.config;
 
+import news.consumer.kafka.NewsArticleDeserializer;
+import news.consumer.kafka.NewsArticleSerializer;
+import news.model.NewsArticle;
+import news.model.codec.ArticleCodec;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -24,31 +42,125 @@ public class KafkaConfig {
   @Value("${spring.kafka.consumer.group-id}")
   private String groupId;
 
+  @Value("${spring.kafka.topic}")
+  private String topic;
+
+  // Upper bound on useful listener concurrency across all consumer instances
+  @Value("${app.kafka.topic.partitions:6}")
+  private int partitions;
+
+  @Value("${app.kafka.topic.replicas:1}")
+  private int replicas;
+
+  @Value("${app.kafka.dead-letter-suffix:.DLT}")
+  private String deadLetterSuffix;
+
+  @Value("${app.kafka.consumer.max-poll-records:10}")
+  private int maxPollRecords;
+
+  // Listener threads, each owns a share of the topic's partitions
+  @Value("${app.kafka.consumer.concurrency:1}")
+  private int concurrency;
+
+  /**
+   * Provisions the articles topic through the auto-configured KafkaAdmin on startup. An existing
+   * topic with fewer partitions is grown to {@code app.kafka.topic.partitions}; partitions are
+   * never removed.
+   */
   @Bean
-  public ConsumerFactory<String, String> consumerFactory() {
+  public NewTopic articlesTopic() {
+    return TopicBuilder.name(topic)
+        .partitions(partitions)
+        .replicas(replicas)
+        .build();
+  }
+
+  // Dead letters are rare and read by hand, a single partition keeps them in arrival order
+  @Bean
+  public NewTopic articlesDeadLetterTopic() {
+    return TopicBuilder.name(topic + deadLetterSuffix)
+        .partitions(1)
+        .replicas(replicas)
+        .build();
+  }
+
+  /**
+   * Values are parsed from the record bytes by {@link NewsArticleDeserializer}, as JSON or Smile
+   * whichever the producer is configured to send. Its
+   * {@link ErrorHandlingDeserializer} wrapper hands a bad payload to the listener as a null value
+   * with the failure in a header, so it is dead-lettered instead of failing every poll.
+   */
+  @Bean
+  public ConsumerFactory<String, NewsArticle> consumerFactory() {
     Map<String, Object> props = new HashMap<>();
     props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
     props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
-    props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-    props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
     props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
-    props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 10);
-    return new DefaultKafkaConsumerFactory<>(props);
+    props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+    // Only used for reading, so the write format does not matter here
+    ArticleCodec codec = new ArticleCodec(ArticleCodec.Format.JSON);
+    return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(),
+        new ErrorHandlingDeserializer<>(new NewsArticleDeserializer(codec)));
   }
 
   @Bean
-  public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory() {
-    ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
-    factory.setConsumerFactory(consumerFactory());
+  public ConcurrentKafkaListenerContainerFactory<String, NewsArticle> kafkaListenerContainerFactory(
+      ConsumerFactory<String, NewsArticle> consumerFactory) {
+    ConcurrentKafkaListenerContainerFactory<String, NewsArticle> factory = new ConcurrentKafkaListenerContainerFactory<>();
+    factory.setConsumerFactory(consumerFactory);
     return factory;
   }
 
   @Bean
-  public ConcurrentKafkaListenerContainerFactory<String, String> kafkaManualAckListenerContainerFactory() {
-    ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
-    factory.setConsumerFactory(consumerFactory());
+  public ConcurrentKafkaListenerContainerFactory<String, NewsArticle> kafkaManualAckListenerContainerFactory(
+      ConsumerFactory<String, NewsArticle> consumerFactory, DefaultErrorHandler batchErrorHandler) {
+    ConcurrentKafkaListenerContainerFactory<String, NewsArticle> factory = new ConcurrentKafkaListenerContainerFactory<>();
+    factory.setConsumerFactory(consumerFactory);
     factory.setBatchListener(true);
+    factory.setConcurrency(concurrency);
     factory.getContainerProperties().setAckMode(AckMode.MANUAL);
+    factory.setCommonErrorHandler(batchErrorHandler);
     return factory;
   }
+
+  /**
+   * Publishes dead letters: decoded articles as JSON again, undecodable payloads as their original
+   * bytes.
+   */
+  @Bean
+  public KafkaTemplate<String, Object> deadLetterKafkaTemplate() {
+    Map<String, Object> props = new HashMap<>();
+    props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+    Map<Class<?>, Serializer<?>> valueSerializers = Map.of(
+        NewsArticle.class, new NewsArticleSerializer(new ArticleCodec(ArticleCodec.Format.JSON)),
+        byte[].class, new ByteArraySerializer());
+    return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(props, new StringSerializer(),
+        new DelegatingByTypeSerializer(valueSerializers)));
+  }
+
+  /**
+   * Handles a {@link org.springframework.kafka.listener.BatchListenerFailedException} thrown by the
+   * batch listener: commits the records before the failed one, retries from the failed record with
+   * exponential backoff and, once the retries are exhausted, publishes it to the dead-letter topic
+   * and moves on. Payloads that cannot be parsed fail with a DeserializationException, which the
+   * handler never retries, so they are dead-lettered straight away. Redis write failures never
+   * reach it: the listener nacks the batch, which is redelivered until the write succeeds.
+   */
+  @Bean
+  public DefaultErrorHandler batchErrorHandler(KafkaTemplate<String, Object> deadLetterKafkaTemplate,
+                                               @Value("${app.kafka.retry.max-retries:3}") int maxRetries,
+                                               @Value("${app.kafka.retry.initial-interval:1000}") long initialInterval,
+                                               @Value("${app.kafka.retry.multiplier:2.0}") double multiplier,
+                                               @Value("${app.kafka.retry.max-interval:10000}") long maxInterval) {
+    // Partition -1 lets the producer pick by key, so the DLT does not need as many partitions as the source
+    DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(deadLetterKafkaTemplate,
+        (record, exception) -> new TopicPartition(record.topic() + deadLetterSuffix, -1));
+
+    ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(maxRetries);
+    backOff.setInitialInterval(initialInterval);
+    backOff.setMultiplier(multiplier);
+    backOff.setMaxInterval(maxInterval);
+
+    return new DefaultErrorHandler(recoverer, backOff);
+  }
 }
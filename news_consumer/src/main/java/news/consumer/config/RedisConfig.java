@@ -1,23 +1,31 @@
 package news.consumer.config;
 
-import news.consumer.dto.NewsArticle;
+import news.model.NewsArticle;
+import news.model.codec.ArticleCodec;
+import news.model.codec.ArticleRedisSerializer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 
 @Configuration
 public class RedisConfig {
 
+  /**
+   * Article values are written as {@code app.redis.value-format} (json or smile). Reads accept
+   * both, so switching the format only affects articles stored from then on; the app must be on a
+   * version that reads Smile before it is turned on here.
+   */
   @Bean
-  public RedisTemplate<String, NewsArticle> redisTemplate(RedisConnectionFactory connectionFactory) {
+  public RedisTemplate<String, NewsArticle> redisTemplate(RedisConnectionFactory connectionFactory,
+                                                          @Value("${app.redis.value-format:json}") ArticleCodec.Format format) {
     RedisTemplate<String, NewsArticle> template = new RedisTemplate<>();
     template.setConnectionFactory(connectionFactory);
     template.setKeySerializer(new StringRedisSerializer());
-    template.setValueSerializer(new Jackson2JsonRedisSerializer<>(NewsArticle.class));
+    template.setValueSerializer(new ArticleRedisSerializer(new ArticleCodec(format)));
     return template;
   }
 }
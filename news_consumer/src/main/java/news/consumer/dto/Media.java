@@ -1,16 +0,0 @@
-package news.consumer.dto;
-
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
-@Builder
-public class Media {
-  private int width;
-  private String url;
-  private int height;
-}
@@ -0,0 +1,35 @@
+package news.consumer.kafka;
+
+import java.io.IOException;
+
+import news.model.NewsArticle;
+import news.model.codec.ArticleCodec;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Parses article values straight from the record bytes, without first decoding them into a
+ * String. JSON and Smile values are both accepted, see {@link ArticleCodec}. Meant to be wrapped
+ * in an {@code ErrorHandlingDeserializer}, which turns a failure into a null value plus an
+ * exception header instead of failing the whole poll.
+ */
+public class NewsArticleDeserializer implements Deserializer<NewsArticle> {
+
+  private final ArticleCodec codec;
+
+  public NewsArticleDeserializer(ArticleCodec codec) {
+    this.codec = codec;
+  }
+
+  @Override
+  public NewsArticle deserialize(String topic, byte[] data) {
+    if (data == null) {
+      return null;
+    }
+    try {
+      return codec.decode(data);
+    } catch (IOException e) {
+      throw new SerializationException("Failed to parse article from topic " + topic, e);
+    }
+  }
+}
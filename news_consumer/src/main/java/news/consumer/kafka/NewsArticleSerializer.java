@@ -0,0 +1,33 @@
+package news.consumer.kafka;
+
+import news.model.NewsArticle;
+import news.model.codec.ArticleCodec;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.io.IOException;
+
+/**
+ * Counterpart of {@link NewsArticleDeserializer}, used to republish decoded articles to the
+ * dead-letter topic in the codec's write format.
+ */
+public class NewsArticleSerializer implements Serializer<NewsArticle> {
+
+  private final ArticleCodec codec;
+
+  public NewsArticleSerializer(ArticleCodec codec) {
+    this.codec = codec;
+  }
+
+  @Override
+  public byte[] serialize(String topic, NewsArticle article) {
+    if (article == null) {
+      return null;
+    }
+    try {
+      return codec.encode(article);
+    } catch (IOException e) {
+      throw new SerializationException("Failed to write article " + article.getId() + " to topic " + topic, e);
+    }
+  }
+}
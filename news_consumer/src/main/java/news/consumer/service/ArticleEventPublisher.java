@@ -0,0 +1,30 @@
+package news.consumer.service;
+
+import java.util.List;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Announces newly stored articles on a Redis pub/sub channel so the news app can push them to
+ * connected clients.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ArticleEventPublisher {
+
+  // Each message is the id of an article that was just stored
+  public static final String NEW_ARTICLES_CHANNEL = "articles:new";
+
+  private final StringRedisTemplate stringRedisTemplate;
+
+  public void publishStored(List<String> ids) {
+    for (String id : ids) {
+      stringRedisTemplate.convertAndSend(NEW_ARTICLES_CHANNEL, id);
+    }
+    log.info("Published {} new articles", ids.size());
+  }
+}
@@ -0,0 +1,195 @@
+package news.consumer.service;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import news.model.Categories;
+import news.model.NewsArticle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maintains the Redis sorted-set indexes that sit next to each {@code article:<id>} value, so the
+ * news app can page articles without scanning the keyspace.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ArticleIndexer {
+
+  // Articles ordered by publication date, score = pubDate epoch millis
+  public static final String BY_DATE_KEY = "articles:by-date";
+
+  // Articles ordered by title, all scores 0 so the set is in lexicographic member order
+  public static final String BY_TITLE_KEY = "articles:by-title";
+
+  // Articles ordered by creator, all scores 0 so the set is in lexicographic member order
+  public static final String BY_CREATOR_KEY = "articles:by-creator";
+
+  // Prefix of the per-category indexes, score = pubDate epoch millis
+  public static final String BY_CATEGORY_KEY_PREFIX = "articles:category:";
+
+  // Articles ordered by the moment their value expires, used to prune the other indexes
+  public static final String EXPIRY_KEY = "articles:expiry";
+
+  // id -> index entries whose member is not the bare id, needed to remove them on expiry
+  public static final String ENTRIES_KEY = "articles:index-entries";
+
+  // Bumped whenever the set of stored articles changes, read by the news app to drop cached pages
+  public static final String VERSION_KEY = "articles:version";
+
+  // Separates the sort value from the id in lexicographic members, sorts before any character
+  public static final String LEX_SEPARATOR = "\u0000";
+
+  private static final String ENTRY_SEPARATOR = "\n";
+
+  private final StringRedisTemplate stringRedisTemplate;
+
+  /**
+   * Adds the articles to every index in a single pipeline.
+   */
+  public void indexAll(List<NewsArticle> articles, Duration ttl) {
+    final long expiresAt = System.currentTimeMillis() + ttl.toMillis();
+    stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+      @Override
+      @SuppressWarnings("unchecked")
+      public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+        RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+        for (NewsArticle article : articles) {
+          index(ops, article, expiresAt);
+        }
+        return null;
+      }
+    });
+  }
+
+  private static void index(RedisOperations<String, String> ops, NewsArticle article, long expiresAt) {
+    final String id = article.getId();
+    final long publishedAt = article.getPublishedAt()
+        .atZone(ZoneId.systemDefault())
+        .toInstant()
+        .toEpochMilli();
+
+    ZSetOperations<String, String> zSetOps = ops.opsForZSet();
+    zSetOps.add(BY_DATE_KEY, id, publishedAt);
+
+    List<String> entries = new ArrayList<>();
+    for (IndexEntry entry : secondaryEntries(article, publishedAt)) {
+      zSetOps.add(entry.key(), entry.member(), entry.score());
+      entries.add(entry.encode());
+    }
+    ops.opsForHash().put(ENTRIES_KEY, id, String.join(ENTRY_SEPARATOR, entries));
+
+    zSetOps.add(EXPIRY_KEY, id, expiresAt);
+  }
+
+  /**
+   * Removes every article whose value has already expired from the indexes. The removals are
+   * grouped by index and sent in a single pipeline, so a large backlog still costs three round
+   * trips.
+   *
+   * @return the number of pruned articles
+   */
+  public int pruneExpired() {
+    ZSetOperations<String, String> zSetOps = stringRedisTemplate.opsForZSet();
+    Set<String> expired = zSetOps.rangeByScore(EXPIRY_KEY, Double.NEGATIVE_INFINITY, System.currentTimeMillis());
+    if (expired == null || expired.isEmpty()) {
+      return 0;
+    }
+
+    List<Object> ids = new ArrayList<>(expired);
+    HashOperations<String, Object, Object> hashOps = stringRedisTemplate.opsForHash();
+    List<Object> encodedEntries = hashOps.multiGet(ENTRIES_KEY, ids);
+    Map<String, List<Object>> membersByIndex = new LinkedHashMap<>();
+    for (Object encoded : encodedEntries) {
+      if (encoded == null) {
+        continue;
+      }
+      for (String line : ((String) encoded).split(ENTRY_SEPARATOR)) {
+        IndexEntry entry = IndexEntry.decode(line);
+        membersByIndex.computeIfAbsent(entry.key(), key -> new ArrayList<>()).add(entry.member());
+      }
+    }
+
+    final Object[] idArray = ids.toArray();
+    stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+      @Override
+      @SuppressWarnings("unchecked")
+      public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+        RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+        ZSetOperations<String, String> pipelineZSetOps = ops.opsForZSet();
+        membersByIndex.forEach((key, members) -> pipelineZSetOps.remove(key, members.toArray()));
+        pipelineZSetOps.remove(BY_DATE_KEY, idArray);
+        ops.opsForHash().delete(ENTRIES_KEY, idArray);
+        pipelineZSetOps.remove(EXPIRY_KEY, idArray);
+        return null;
+      }
+    });
+    log.info("Pruned {} expired articles from indexes", idArray.length);
+    return idArray.length;
+  }
+
+  /**
+   * Signals readers that the indexed articles changed since the last version they saw.
+   */
+  public void bumpVersion() {
+    stringRedisTemplate.opsForValue().increment(VERSION_KEY);
+  }
+
+  private static List<IndexEntry> secondaryEntries(NewsArticle article, long publishedAt) {
+    List<IndexEntry> entries = new ArrayList<>(Arrays.asList(
+        new IndexEntry(BY_TITLE_KEY, lexMember(article.getTitle(), article.getId()), 0),
+        new IndexEntry(BY_CREATOR_KEY, lexMember(article.getCreator(), article.getId()), 0)));
+
+    if (article.getCategories() != null) {
+      Set<String> categoryKeys = new LinkedHashSet<>();
+      for (String category : article.getCategories()) {
+        if (category != null && !category.isBlank()) {
+          categoryKeys.add(categoryKey(category));
+        }
+      }
+      for (String categoryKey : categoryKeys) {
+        entries.add(new IndexEntry(categoryKey, article.getId(), publishedAt));
+      }
+    }
+    return entries;
+  }
+
+  // Normalized the same way as the app's category filters
+  static String categoryKey(String category) {
+    return BY_CATEGORY_KEY_PREFIX + Categories.normalize(category);
+  }
+
+  // Missing values index as the empty string so every article appears in every sort
+  static String lexMember(String value, String id) {
+    String sortValue = value == null ? "" : value.replace(LEX_SEPARATOR, "").replace(ENTRY_SEPARATOR, " ");
+    return sortValue + LEX_SEPARATOR + id;
+  }
+
+  private record IndexEntry(String key, String member, double score) {
+
+    String encode() {
+      return key + "\t" + member;
+    }
+
+    static IndexEntry decode(String encoded) {
+      int tab = encoded.indexOf('\t');
+      // The score is not needed to remove the member
+      return new IndexEntry(encoded.substring(0, tab), encoded.substring(tab + 1), 0);
+    }
+  }
+}
@@ -1,85 +1,285 @@
 package news.consumer.service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.TimeUnit;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import news.consumer.dto.NewsArticle;
+import news.model.NewsArticle;
 import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.jms.AcknowledgeMode;
+import org.springframework.core.log.LogAccessor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class NewsConsumerService {
 
+  private static final Duration ARTICLE_TTL = Duration.ofHours(24);
+
+  private static final String ARTICLE_KEY_PREFIX = "article:";
+
+  private static final LogAccessor LOG_ACCESSOR = new LogAccessor(NewsConsumerService.class);
+
   private final RedisTemplate<String, NewsArticle> redisTemplate;
 
-  private final ObjectMapper objectMapper;
+  private final ArticleIndexer articleIndexer;
+
+  private final ArticleEventPublisher articleEventPublisher;
+
+  // Pause before a batch that could not be written is redelivered, below max.poll.interval.ms
+  @Value("${app.kafka.retry.write-interval:10s}")
+  private Duration writeRetryInterval = Duration.ofSeconds(10);
 
   @KafkaListener(
       topics = "${spring.kafka.topic}",
       groupId = "${spring.kafka.consumer.group-id}",
       containerFactory = "kafkaManualAckListenerContainerFactory"
   )
-  public void consume(List<ConsumerRecord<String, String>> records, Acknowledgment acknowledgment) {
+  public void consume(List<ConsumerRecord<String, NewsArticle>> records, Acknowledgment acknowledgment) {
     log.info("Received batch of {} messages", records.size());
-    boolean allSuccessful = true;
+    boolean pruned = pruneExpiredArticles();
 
-    for (ConsumerRecord<String, String> record : records) {
-      try {
-        processRecord(record);
-      } catch (Exception e) {
-        log.error("Error processing record: " + e.getMessage(), e);
-        allSuccessful = false;
-        break;  // Stop processing on first error
-      }
+    BatchResult result = processBatch(records);
+    List<String> storedIds = result.storedIds();
+
+    if (pruned || !storedIds.isEmpty()) {
+      bumpVersion();
+    }
+    if (!storedIds.isEmpty()) {
+      publishStored(storedIds);
     }
 
-    if (allSuccessful) {
+    // Comes before any decoding failure, which is always last
+    int unwrittenIndex = result.outcomes().indexOf(RecordOutcome.UNWRITTEN);
+    if (unwrittenIndex >= 0) {
+      // Redis is unavailable, which says nothing about the records. Commit the ones before and
+      // redeliver from this one after a pause, as often as it takes, never dead-lettering it
+      log.warn("Could not write record {} of the batch, redelivering it in {}", unwrittenIndex, writeRetryInterval);
+      acknowledgment.nack(unwrittenIndex, writeRetryInterval);
+      return;
+    }
+
+    int failedIndex = result.outcomes().indexOf(RecordOutcome.FAILED);
+    if (failedIndex < 0) {
       acknowledgment.acknowledge();
       log.info("Successfully processed and acknowledged batch of {} messages", records.size());
-    } else {
-      log.warn("Batch had errors, not acknowledging. Will be redelivered.");
+      return;
     }
+
+    // The error handler commits the records before this one and retries from it with backoff,
+    // dead-lettering it once the retries run out, so one bad record cannot stall the partition
+    log.warn("Record {} of the batch failed, committing the {} records before it", failedIndex, failedIndex);
+    throw new BatchListenerFailedException("Failed to process record at index " + failedIndex,
+        result.failure(), records.get(failedIndex));
   }
 
-  private void processRecord(ConsumerRecord<String, String> record) throws Exception {
-    // Your existing processing logic with idempotency checks
-    NewsArticle article = objectMapper.readValue(record.value(), NewsArticle.class);
+  /**
+   * Checks the records, already parsed by the deserializer on the poll, then creates the new
+   * articles up to the first record that failed to decode with a single pipelined round of
+   * SET NX EX and indexes the ones that were actually created. Records after a decoding failure
+   * are not written and have no outcome. Parsing already happened at poll time, so the per-record
+   * work is trivial and stays on the listener thread; parallelism comes from one listener thread
+   * per partition.
+   */
+  private BatchResult processBatch(List<ConsumerRecord<String, NewsArticle>> records) {
+    List<DecodedRecord> decoded = records.stream().map(this::decodeRecord).toList();
 
-    // Skip if article is older than 72 hours
-    if (article.getPublishedAt().isBefore(LocalDateTime.now().minus(72, ChronoUnit.HOURS))) {
-      log.info("Skipping old article: " + article.getTitle());
-      return;
+    List<RecordOutcome> outcomes = new ArrayList<>(records.size());
+    List<String> storedIds = new ArrayList<>();
+    List<NewsArticle> candidates = new ArrayList<>();
+    List<Integer> candidatePositions = new ArrayList<>();
+    Exception failure = null;
+
+    for (DecodedRecord record : decoded) {
+      if (record.failure() != null) {
+        log.error("Error processing record: " + record.failure().getMessage(), record.failure());
+        outcomes.add(RecordOutcome.FAILED);
+        failure = record.failure();
+        break;  // Stop processing on first error
+      }
+      if (record.article() == null) {
+        outcomes.add(RecordOutcome.SKIPPED);
+      } else {
+        candidatePositions.add(outcomes.size());
+        candidates.add(record.article());
+        outcomes.add(null);
+      }
     }
 
-    final String redisKey = "article:" + article.getId();
-    Boolean keyExists = redisTemplate.hasKey(redisKey);
-    if (keyExists != null && keyExists) {
-      log.info("Article already exists in Redis: " + article.getTitle());
-      return;
+    if (candidates.isEmpty()) {
+      return new BatchResult(outcomes, storedIds, failure);
+    }
+
+    List<RecordOutcome> writeOutcomes;
+    try {
+      writeOutcomes = storeAll(candidates);
+    } catch (Exception e) {
+      log.error("Error writing batch of {} articles: {}", candidates.size(), e.getMessage(), e);
+      writeOutcomes = Collections.nCopies(candidates.size(), RecordOutcome.UNWRITTEN);
+    }
+
+    for (int i = 0; i < candidates.size(); i++) {
+      RecordOutcome outcome = writeOutcomes.get(i);
+      outcomes.set(candidatePositions.get(i), outcome);
+      if (outcome == RecordOutcome.STORED) {
+        storedIds.add(candidates.get(i).getId());
+        log.info("Processed and saved article: " + candidates.get(i).getTitle());
+      } else if (outcome == RecordOutcome.DUPLICATE) {
+        log.info("Article already exists in Redis: " + candidates.get(i).getTitle());
+      }
     }
+    return new BatchResult(outcomes, storedIds, failure);
+  }
+
+  // Never throws, a failure is returned so the batch can commit up to the record that caused it
+  private DecodedRecord decodeRecord(ConsumerRecord<String, NewsArticle> record) {
+    try {
+      NewsArticle article = record.value();
+      if (article == null) {
+        // ErrorHandlingDeserializer delivers a payload it could not parse as a null value
+        DeserializationException failure = SerializationUtils.getExceptionFromHeader(
+            record, SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, LOG_ACCESSOR);
+        return new DecodedRecord(null, failure != null
+            ? failure
+            : new IllegalArgumentException("Record at offset " + record.offset() + " has no value"));
+      }
 
-    // Save to Redis with 24-hour TTL
-    redisTemplate.opsForValue().set(redisKey, article);
-    redisTemplate.expire(redisKey, 24, TimeUnit.HOURS);
+      // Without a publication date the article can be neither aged out nor placed in the date index
+      if (article.getPublishedAt() == null) {
+        log.info("Skipping article without a publication date: " + article.getTitle());
+        return new DecodedRecord(null, null);
+      }
+
+      // Skip if article is older than 72 hours
+      if (article.getPublishedAt().isBefore(LocalDateTime.now().minus(72, ChronoUnit.HOURS))) {
+        log.info("Skipping old article: " + article.getTitle());
+        return new DecodedRecord(null, null);
+      }
+      return new DecodedRecord(article, null);
+    } catch (Exception e) {
+      return new DecodedRecord(null, e);
+    }
+  }
+
+  /**
+   * Creates every article that does not exist yet with one pipelined SET NX EX per article, so
+   * the check, the write and the 24-hour TTL are atomic and the whole batch costs one round trip.
+   * Created articles are then indexed in a second pipeline. If indexing fails the created values
+   * are removed again, so the redelivered records are not mistaken for duplicates.
+   *
+   * @return one outcome per article, {@link RecordOutcome#STORED} or {@link RecordOutcome#DUPLICATE}
+   */
+  @SuppressWarnings("unchecked")
+  private List<RecordOutcome> storeAll(List<NewsArticle> articles) {
+    List<Object> created = redisTemplate.executePipelined(new SessionCallback<Object>() {
+      @Override
+      public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+        RedisOperations<String, NewsArticle> ops = (RedisOperations<String, NewsArticle>) operations;
+        for (NewsArticle article : articles) {
+          ops.opsForValue().setIfAbsent(ARTICLE_KEY_PREFIX + article.getId(), article, ARTICLE_TTL);
+        }
+        return null;
+      }
+    });
+
+    List<RecordOutcome> outcomes = new ArrayList<>(articles.size());
+    List<NewsArticle> stored = new ArrayList<>();
+    for (int i = 0; i < articles.size(); i++) {
+      if (Boolean.TRUE.equals(created.get(i))) {
+        outcomes.add(RecordOutcome.STORED);
+        stored.add(articles.get(i));
+      } else {
+        outcomes.add(RecordOutcome.DUPLICATE);
+      }
+    }
+
+    if (!stored.isEmpty()) {
+      try {
+        articleIndexer.indexAll(stored, ARTICLE_TTL);
+      } catch (RuntimeException e) {
+        redisTemplate.delete(stored.stream().map(article -> ARTICLE_KEY_PREFIX + article.getId()).toList());
+        throw e;
+      }
+    }
+    return outcomes;
+  }
+
+  private boolean pruneExpiredArticles() {
+    try {
+      return articleIndexer.pruneExpired() > 0;
+    } catch (Exception e) {
+      // Pruning is best effort, the next batch will retry it
+      log.warn("Failed to prune expired articles from indexes: " + e.getMessage());
+      return false;
+    }
+  }
+
+  // Live updates are best effort, clients still see the article on their next page load
+  private void publishStored(List<String> ids) {
+    try {
+      articleEventPublisher.publishStored(ids);
+    } catch (Exception e) {
+      log.warn("Failed to publish new articles: " + e.getMessage());
+    }
+  }
+
+  // Readers fall back to their cache TTL if this is lost, so a failure must not fail the batch
+  private void bumpVersion() {
+    try {
+      articleIndexer.bumpVersion();
+    } catch (Exception e) {
+      log.warn("Failed to bump articles version: " + e.getMessage());
+    }
+  }
+
+  /**
+   * @param article the article, null if it failed to decode or is undated or too old to be stored
+   * @param failure why the record could not be decoded, if it could not
+   */
+  private record DecodedRecord(NewsArticle article, Exception failure) {
+  }
+
+  /**
+   * @param outcomes  one outcome per processed record, in record order
+   * @param storedIds the ids of the articles created by this batch
+   * @param failure   the cause of the {@link RecordOutcome#FAILED} outcome, if any
+   */
+  private record BatchResult(List<RecordOutcome> outcomes, List<String> storedIds, Exception failure) {
+  }
 
-    log.info("Processed and saved article: " + article.getTitle());
+  /**
+   * What happened to a single record of a batch.
+   */
+  enum RecordOutcome {
+    // Created in Redis and indexed
+    STORED,
+    // An article with the same id already exists
+    DUPLICATE,
+    // Older than the retention window or undated, not stored
+    SKIPPED,
+    // Could not be decoded, retried from this record on and then dead-lettered
+    FAILED,
+    // Could not be written, redelivered from this record on until Redis is back
+    UNWRITTEN
   }
 }
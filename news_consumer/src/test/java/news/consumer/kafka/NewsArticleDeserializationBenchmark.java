@@ -0,0 +1,93 @@
+package news.consumer.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import news.model.NewsArticle;
+import news.model.codec.ArticleCodec;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the previous value path (StringDeserializer, then ObjectMapper on the String) with
+ * {@link NewsArticleDeserializer} parsing the record bytes directly. Run with the GC profiler to
+ * see the allocation per record ({@code gc.alloc.rate.norm}) next to the throughput:
+ *
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     news.consumer.kafka.NewsArticleDeserializationBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NewsArticleDeserializationBenchmark {
+
+  private static final String TOPIC = "nyt.rss.articles";
+
+  private byte[] payload;
+
+  private ObjectMapper objectMapper;
+
+  private StringDeserializer stringDeserializer;
+
+  private NewsArticleDeserializer articleDeserializer;
+
+  @Setup
+  public void setUp() {
+    objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    stringDeserializer = new StringDeserializer();
+    articleDeserializer = new NewsArticleDeserializer(new ArticleCodec(ArticleCodec.Format.JSON));
+
+    // Shaped like a feed item as sent by the producer, with a typical multi-sentence description
+    String description = "Lawmakers met late into the night to negotiate the final details of the bill. ".repeat(6);
+    payload = ("{\"title\":\"Senate Passes Spending Bill After Late-Night Session\","
+        + "\"link\":\"https://www.nytimes.com/2024/05/01/us/politics/senate-spending-bill.html\","
+        + "\"guid\":\"5f0c6a7e9d3b4c1a8e2f7b6d5c4a3b2e1f0d9c8b7a6e5d4c3b2a1f0e9d8c7b6a\","
+        + "\"description\":\"" + description + "\","
+        + "\"creator\":\"Jane Doe and John Roe\","
+        + "\"pubDate\":1714564800000,"
+        + "\"categories\":[\"United States Politics and Government\",\"Senate\",\"Federal Budget (US)\"],"
+        + "\"media\":{\"url\":\"https://static01.nyt.com/images/2024/05/01/multimedia/senate.jpg\","
+        + "\"width\":1800,\"height\":1200}}")
+        .getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public NewsArticle stringThenObjectMapper() throws Exception {
+    String value = stringDeserializer.deserialize(TOPIC, payload);
+    return objectMapper.readValue(value, NewsArticle.class);
+  }
+
+  @Benchmark
+  public NewsArticle bytesToArticle() {
+    return articleDeserializer.deserialize(TOPIC, payload);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(NewsArticleDeserializationBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build())
+        .run();
+  }
+}
@@ -0,0 +1,61 @@
+package news.consumer.kafka;
+
+import news.model.NewsArticle;
+import news.model.codec.ArticleCodec;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class NewsArticleDeserializerTest {
+
+  private final ArticleCodec codec = new ArticleCodec(ArticleCodec.Format.JSON);
+
+  private final NewsArticleDeserializer deserializer = new NewsArticleDeserializer(codec);
+
+  @Test
+  void shouldParseProducerPayload() {
+    // Given
+    String payload = "{\"guid\":\"abc\",\"title\":\"Title\",\"pubDate\":1700000000000,\"categories\":[\"World\"]}";
+
+    // When
+    NewsArticle article = deserializer.deserialize("news", payload.getBytes(StandardCharsets.UTF_8));
+
+    // Then
+    assertEquals("abc", article.getId());
+    assertEquals("Title", article.getTitle());
+    assertEquals(List.of("World"), article.getCategories());
+  }
+
+  @Test
+  void shouldRoundTripThroughSerializer() {
+    // Given
+    NewsArticle article = new NewsArticle();
+    article.setId("abc");
+    article.setTitle("Title");
+    article.setPublishedAt(LocalDateTime.of(2024, 5, 1, 12, 30));
+
+    // When
+    byte[] bytes = new NewsArticleSerializer(codec).serialize("news.DLT", article);
+
+    // Then
+    assertEquals(article, deserializer.deserialize("news.DLT", bytes));
+  }
+
+  @Test
+  void shouldReturnNullForTombstone() {
+    assertNull(deserializer.deserialize("news", null));
+  }
+
+  @Test
+  void shouldFailOnMalformedPayload() {
+    assertThrows(SerializationException.class,
+        () -> deserializer.deserialize("news", "{invalid".getBytes(StandardCharsets.UTF_8)));
+  }
+}
@@ -0,0 +1,193 @@
+package news.consumer.service;
+
+import news.model.NewsArticle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ArticleIndexerTest {
+
+  @Mock
+  private StringRedisTemplate stringRedisTemplate;
+
+  @Mock
+  private ZSetOperations<String, String> zSetOperations;
+
+  @Mock
+  private HashOperations<String, Object, Object> hashOperations;
+
+  @Mock
+  private ValueOperations<String, String> valueOperations;
+
+  @Mock
+  private RedisOperations<String, String> pipelineOperations;
+
+  @InjectMocks
+  private ArticleIndexer articleIndexer;
+
+  private NewsArticle article;
+
+  @BeforeEach
+  void setUp() {
+    article = new NewsArticle();
+    article.setId("recent-123");
+    article.setTitle("Recent News");
+    article.setPublishedAt(LocalDateTime.now().minusHours(1));
+
+    lenient().when(stringRedisTemplate.opsForZSet()).thenReturn(zSetOperations);
+    lenient().when(stringRedisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+    lenient().when(pipelineOperations.opsForZSet()).thenReturn(zSetOperations);
+    lenient().when(pipelineOperations.<Object, Object>opsForHash()).thenReturn(hashOperations);
+    lenient().when(stringRedisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+      SessionCallback<?> callback = invocation.getArgument(0);
+      callback.execute(pipelineOperations);
+      return Collections.emptyList();
+    });
+  }
+
+  @Test
+  void shouldAddArticleToEveryIndex() {
+    // When
+    articleIndexer.indexAll(List.of(article), Duration.ofHours(24));
+
+    // Then
+    long publishedAt = article.getPublishedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    verify(zSetOperations).add(ArticleIndexer.BY_DATE_KEY, "recent-123", publishedAt);
+    verify(zSetOperations).add(ArticleIndexer.BY_TITLE_KEY, "Recent News\u0000recent-123", 0);
+    verify(zSetOperations).add(ArticleIndexer.BY_CREATOR_KEY, "\u0000recent-123", 0);
+    verify(zSetOperations).add(eq(ArticleIndexer.EXPIRY_KEY), eq("recent-123"), anyDouble());
+    verify(hashOperations).put(ArticleIndexer.ENTRIES_KEY, "recent-123",
+        ArticleIndexer.BY_TITLE_KEY + "\tRecent News\u0000recent-123\n"
+            + ArticleIndexer.BY_CREATOR_KEY + "\t\u0000recent-123");
+  }
+
+  @Test
+  void shouldIndexWholeBatchInOnePipeline() {
+    // Given
+    NewsArticle another = new NewsArticle();
+    another.setId("another-789");
+    another.setPublishedAt(LocalDateTime.now().minusHours(2));
+
+    // When
+    articleIndexer.indexAll(List.of(article, another), Duration.ofHours(24));
+
+    // Then
+    verify(stringRedisTemplate, times(1)).executePipelined(any(SessionCallback.class));
+    verify(zSetOperations).add(eq(ArticleIndexer.BY_DATE_KEY), eq("recent-123"), anyDouble());
+    verify(zSetOperations).add(eq(ArticleIndexer.BY_DATE_KEY), eq("another-789"), anyDouble());
+    verify(hashOperations, times(2)).put(eq(ArticleIndexer.ENTRIES_KEY), anyString(), anyString());
+  }
+
+  @Test
+  void shouldPruneExpiredArticlesFromEveryIndex() {
+    // Given
+    when(zSetOperations.rangeByScore(eq(ArticleIndexer.EXPIRY_KEY), eq(Double.NEGATIVE_INFINITY), anyDouble()))
+        .thenReturn(new LinkedHashSet<>(List.of("old-456")));
+    when(hashOperations.multiGet(ArticleIndexer.ENTRIES_KEY, List.of("old-456")))
+        .thenReturn(Collections.singletonList(ArticleIndexer.BY_TITLE_KEY + "\tOld News\u0000old-456"));
+
+    // When
+    int pruned = articleIndexer.pruneExpired();
+
+    // Then
+    assertEquals(1, pruned);
+    verify(zSetOperations).remove(ArticleIndexer.BY_TITLE_KEY, "Old News\u0000old-456");
+    verify(zSetOperations).remove(ArticleIndexer.BY_DATE_KEY, "old-456");
+    verify(zSetOperations).remove(ArticleIndexer.EXPIRY_KEY, "old-456");
+    verify(hashOperations).delete(ArticleIndexer.ENTRIES_KEY, "old-456");
+    verify(stringRedisTemplate, times(1)).executePipelined(any(SessionCallback.class));
+  }
+
+  @Test
+  void shouldPruneEachIndexWithOneRemovalInOnePipeline() {
+    // Given
+    when(zSetOperations.rangeByScore(eq(ArticleIndexer.EXPIRY_KEY), eq(Double.NEGATIVE_INFINITY), anyDouble()))
+        .thenReturn(new LinkedHashSet<>(List.of("old-1", "old-2")));
+    when(hashOperations.multiGet(ArticleIndexer.ENTRIES_KEY, List.of("old-1", "old-2")))
+        .thenReturn(List.of(
+            ArticleIndexer.BY_TITLE_KEY + "\tFirst\u0000old-1",
+            ArticleIndexer.BY_TITLE_KEY + "\tSecond\u0000old-2"));
+
+    // When
+    int pruned = articleIndexer.pruneExpired();
+
+    // Then
+    assertEquals(2, pruned);
+    verify(stringRedisTemplate, times(1)).executePipelined(any(SessionCallback.class));
+    verify(pipelineOperations, atLeastOnce()).opsForZSet();
+    verify(zSetOperations).remove(ArticleIndexer.BY_TITLE_KEY, "First\u0000old-1", "Second\u0000old-2");
+    verify(zSetOperations).remove(ArticleIndexer.BY_DATE_KEY, "old-1", "old-2");
+    verify(zSetOperations).remove(ArticleIndexer.EXPIRY_KEY, "old-1", "old-2");
+    verify(hashOperations).delete(ArticleIndexer.ENTRIES_KEY, "old-1", "old-2");
+  }
+
+  @Test
+  void shouldDoNothingWhenNothingExpired() {
+    // Given
+    when(zSetOperations.rangeByScore(eq(ArticleIndexer.EXPIRY_KEY), eq(Double.NEGATIVE_INFINITY), anyDouble()))
+        .thenReturn(Collections.emptySet());
+
+    // When
+    int pruned = articleIndexer.pruneExpired();
+
+    // Then
+    assertEquals(0, pruned);
+    verify(zSetOperations, never()).remove(anyString(), any());
+    verifyNoInteractions(hashOperations);
+  }
+
+  @Test
+  void shouldStripSeparatorsFromLexMembers() {
+    assertEquals("ab c\u0000id", ArticleIndexer.lexMember("a\u0000b\nc", "id"));
+    assertEquals("\u0000id", ArticleIndexer.lexMember(null, "id"));
+  }
+
+  @Test
+  void shouldIndexEachDistinctCategoryByPubDate() {
+    // Given
+    article.setCategories(Arrays.asList("Artificial Intelligence", " artificial intelligence", "Start-ups", " "));
+
+    // When
+    articleIndexer.indexAll(List.of(article), Duration.ofHours(24));
+
+    // Then
+    long publishedAt = article.getPublishedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    verify(zSetOperations).add("articles:category:artificial intelligence", "recent-123", publishedAt);
+    verify(zSetOperations).add("articles:category:start-ups", "recent-123", publishedAt);
+    verify(zSetOperations, times(6)).add(anyString(), anyString(), anyDouble());
+  }
+
+  @Test
+  void shouldIncrementVersionKey() {
+    // Given
+    when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+
+    // When
+    articleIndexer.bumpVersion();
+
+    // Then
+    verify(valueOperations).increment(ArticleIndexer.VERSION_KEY);
+  }
+}
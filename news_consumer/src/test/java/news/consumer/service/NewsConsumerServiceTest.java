@@ -1,24 +1,38 @@
 package news.consumer.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import news.consumer.dto.NewsArticle;
+import news.consumer.kafka.NewsArticleDeserializer;
+import news.model.NewsArticle;
+import news.model.codec.ArticleCodec;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -28,25 +42,29 @@ public class NewsConsumerServiceTest {
   @Mock
   private RedisTemplate<String, NewsArticle> redisTemplate;
 
-  @Mock
-  private ObjectMapper objectMapper;
-
   @Mock
   private Acknowledgment acknowledgment;
 
   @Mock
   private ValueOperations<String, NewsArticle> valueOperations;
 
+  @Mock
+  private RedisOperations<String, NewsArticle> pipelineOperations;
+
+  @Mock
+  private ArticleIndexer articleIndexer;
+
+  @Mock
+  private ArticleEventPublisher articleEventPublisher;
+
   @InjectMocks
   private NewsConsumerService newsConsumerService;
 
   private NewsArticle recentArticle;
   private NewsArticle oldArticle;
-  private String recentArticleJson;
-  private String oldArticleJson;
 
   @BeforeEach
-  void setUp() throws Exception {
+  void setUp() {
     // Setup recent article (within 72 hours)
     recentArticle = new NewsArticle();
     recentArticle.setId("recent-123");
@@ -58,130 +76,233 @@ public class NewsConsumerServiceTest {
     oldArticle.setId("old-456");
     oldArticle.setTitle("Old News");
     oldArticle.setPublishedAt(LocalDateTime.now().minus(96, ChronoUnit.HOURS));
-
-    // JSON representations
-    recentArticleJson = "{\"id\":\"recent-123\",\"title\":\"Recent News\"}";
-    oldArticleJson = "{\"id\":\"old-456\",\"title\":\"Old News\"}";
   }
 
   @Test
   void shouldProcessAndAcknowledgeBatchSuccessfully() throws Exception {
     // Given
-    ConsumerRecord<String, String> record1 = new ConsumerRecord<>("news", 0, 0, "key1", recentArticleJson);
-    List<ConsumerRecord<String, String>> records = Arrays.asList(record1);
+    ConsumerRecord<String, NewsArticle> record1 = new ConsumerRecord<>("news", 0, 0, "key1", recentArticle);
+    List<ConsumerRecord<String, NewsArticle>> records = Arrays.asList(record1);
 
-    when(objectMapper.readValue(recentArticleJson, NewsArticle.class)).thenReturn(recentArticle);
-    when(redisTemplate.hasKey("article:recent-123")).thenReturn(false);
-    when(redisTemplate.opsForValue()).thenReturn(valueOperations); // Add this here
+    givenCreated(true);
 
     // When
     newsConsumerService.consume(records, acknowledgment);
 
     // Then
-    verify(valueOperations).set("article:recent-123", recentArticle); // Update this line
-    verify(redisTemplate).expire("article:recent-123", 24, TimeUnit.HOURS);
+    verify(valueOperations).setIfAbsent("article:recent-123", recentArticle, Duration.ofHours(24));
+    verify(articleIndexer).indexAll(List.of(recentArticle), Duration.ofHours(24));
+    verify(articleIndexer).bumpVersion();
+    verify(articleEventPublisher).publishStored(List.of("recent-123"));
     verify(acknowledgment).acknowledge();
   }
 
   @Test
-  void shouldSkipOldArticles() throws Exception {
+  void shouldPruneExpiredArticlesBeforeProcessingBatch() throws Exception {
     // Given
-    ConsumerRecord<String, String> record = new ConsumerRecord<>("news", 0, 0, "key1", oldArticleJson);
-    List<ConsumerRecord<String, String>> records = Arrays.asList(record);
+    ConsumerRecord<String, NewsArticle> record = new ConsumerRecord<>("news", 0, 0, "key1", oldArticle);
+    List<ConsumerRecord<String, NewsArticle>> records = Arrays.asList(record);
 
-    when(objectMapper.readValue(oldArticleJson, NewsArticle.class)).thenReturn(oldArticle);
+    when(articleIndexer.pruneExpired()).thenThrow(new RuntimeException("Redis unavailable"));
 
     // When
     newsConsumerService.consume(records, acknowledgment);
 
     // Then
-    verify(redisTemplate, never()).opsForValue();
+    verify(articleIndexer).pruneExpired();
     verify(acknowledgment).acknowledge();
   }
 
   @Test
-  void shouldSkipAlreadyProcessedArticles() throws Exception {
+  void shouldBumpVersionWhenOnlyPruningChangedIndexes() throws Exception {
+    // Given
+    ConsumerRecord<String, NewsArticle> record = new ConsumerRecord<>("news", 0, 0, "key1", oldArticle);
+    List<ConsumerRecord<String, NewsArticle>> records = Arrays.asList(record);
+
+    when(articleIndexer.pruneExpired()).thenReturn(2);
+
+    // When
+    newsConsumerService.consume(records, acknowledgment);
+
+    // Then
+    verify(articleIndexer).bumpVersion();
+    verify(acknowledgment).acknowledge();
+  }
+
+  @Test
+  void shouldSkipOldArticles() throws Exception {
     // Given
-    ConsumerRecord<String, String> record = new ConsumerRecord<>("news", 0, 0, "key1", recentArticleJson);
-    List<ConsumerRecord<String, String>> records = Arrays.asList(record);
+    ConsumerRecord<String, NewsArticle> record = new ConsumerRecord<>("news", 0, 0, "key1", oldArticle);
+    List<ConsumerRecord<String, NewsArticle>> records = Arrays.asList(record);
 
-    when(objectMapper.readValue(recentArticleJson, NewsArticle.class)).thenReturn(recentArticle);
-    when(redisTemplate.hasKey("article:recent-123")).thenReturn(true);
-    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
 
     // When
     newsConsumerService.consume(records, acknowledgment);
 
     // Then
-    verify(redisTemplate.opsForValue(), never()).set(anyString(), any(NewsArticle.class));
-    verify(redisTemplate, never()).expire(anyString(), anyLong(), any());
+    verify(redisTemplate, never()).executePipelined(any(SessionCallback.class));
+    verify(articleIndexer, never()).indexAll(any(), any());
+    verify(articleIndexer, never()).bumpVersion();
+    verifyNoInteractions(articleEventPublisher);
     verify(acknowledgment).acknowledge();
   }
 
   @Test
-  void shouldNotAcknowledgeWhenProcessingFails() throws Exception {
+  void shouldSkipArticlesWithoutPublicationDate() throws Exception {
+    // Given, as the producer sends an item without a pubDate
+    NewsArticle undated = new NewsArticleDeserializer(new ArticleCodec(ArticleCodec.Format.JSON))
+        .deserialize("news", "{\"guid\":\"undated-1\",\"title\":\"Undated\"}".getBytes(StandardCharsets.UTF_8));
+    ConsumerRecord<String, NewsArticle> record1 = new ConsumerRecord<>("news", 0, 0, "key1", undated);
+    ConsumerRecord<String, NewsArticle> record2 = new ConsumerRecord<>("news", 0, 1, "key2", recentArticle);
+    List<ConsumerRecord<String, NewsArticle>> records = Arrays.asList(record1, record2);
+
+    givenCreated(true);
+
+    // When
+    newsConsumerService.consume(records, acknowledgment);
+
+    // Then
+    verify(valueOperations, never()).setIfAbsent(eq("article:undated-1"), any(), any(Duration.class));
+    verify(articleIndexer).indexAll(List.of(recentArticle), Duration.ofHours(24));
+    verify(acknowledgment).acknowledge();
+  }
+
+  @Test
+  void shouldSkipAlreadyProcessedArticles() throws Exception {
     // Given
-    ConsumerRecord<String, String> record = new ConsumerRecord<>("news", 0, 0, "key1", recentArticleJson);
-    List<ConsumerRecord<String, String>> records = Arrays.asList(record);
+    ConsumerRecord<String, NewsArticle> record = new ConsumerRecord<>("news", 0, 0, "key1", recentArticle);
+    List<ConsumerRecord<String, NewsArticle>> records = Arrays.asList(record);
 
-    when(objectMapper.readValue(recentArticleJson, NewsArticle.class)).thenThrow(new RuntimeException("Processing error"));
+    givenCreated(false);
 
     // When
     newsConsumerService.consume(records, acknowledgment);
 
     // Then
+    verify(articleIndexer, never()).indexAll(any(), any());
+    verifyNoInteractions(articleEventPublisher);
+    verify(acknowledgment).acknowledge();
+  }
+
+  @Test
+  void shouldNotAcknowledgeWhenPayloadCannotBeParsed() {
+    // Given
+    ConsumerRecord<String, NewsArticle> record = undecodableRecord(0, "{invalid-json}");
+    List<ConsumerRecord<String, NewsArticle>> records = Arrays.asList(record);
+
+    // When
+    BatchListenerFailedException thrown = assertThrows(BatchListenerFailedException.class,
+        () -> newsConsumerService.consume(records, acknowledgment));
+
+    // Then
+    assertSame(record, thrown.getRecord());
+    assertInstanceOf(DeserializationException.class, thrown.getCause());
     verify(acknowledgment, never()).acknowledge();
   }
 
   @Test
   void shouldProcessMultipleRecordsSuccessfully() throws Exception {
     // Given
-    ConsumerRecord<String, String> record1 = new ConsumerRecord<>("news", 0, 0, "key1", recentArticleJson);
+    ConsumerRecord<String, NewsArticle> record1 = new ConsumerRecord<>("news", 0, 0, "key1", recentArticle);
 
     NewsArticle anotherArticle = new NewsArticle();
     anotherArticle.setId("another-789");
     anotherArticle.setTitle("Another News");
     anotherArticle.setPublishedAt(LocalDateTime.now().minus(12, ChronoUnit.HOURS));
-    String anotherArticleJson = "{\"id\":\"another-789\",\"title\":\"Another News\"}";
 
-    ConsumerRecord<String, String> record2 = new ConsumerRecord<>("news", 0, 1, "key2", anotherArticleJson);
-    List<ConsumerRecord<String, String>> records = Arrays.asList(record1, record2);
+    ConsumerRecord<String, NewsArticle> record2 = new ConsumerRecord<>("news", 0, 1, "key2", anotherArticle);
+    List<ConsumerRecord<String, NewsArticle>> records = Arrays.asList(record1, record2);
 
-    when(objectMapper.readValue(recentArticleJson, NewsArticle.class)).thenReturn(recentArticle);
-    when(objectMapper.readValue(anotherArticleJson, NewsArticle.class)).thenReturn(anotherArticle);
-    when(redisTemplate.hasKey("article:recent-123")).thenReturn(false);
-    when(redisTemplate.hasKey("article:another-789")).thenReturn(false);
-    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    givenCreated(true, true);
 
     // When
     newsConsumerService.consume(records, acknowledgment);
 
     // Then
-    verify(redisTemplate.opsForValue()).set("article:recent-123", recentArticle);
-    verify(redisTemplate).expire("article:recent-123", 24, TimeUnit.HOURS);
-    verify(redisTemplate.opsForValue()).set("article:another-789", anotherArticle);
-    verify(redisTemplate).expire("article:another-789", 24, TimeUnit.HOURS);
+    verify(redisTemplate, times(1)).executePipelined(any(SessionCallback.class));
+    verify(valueOperations).setIfAbsent("article:recent-123", recentArticle, Duration.ofHours(24));
+    verify(valueOperations).setIfAbsent("article:another-789", anotherArticle, Duration.ofHours(24));
+    verify(articleIndexer).indexAll(List.of(recentArticle, anotherArticle), Duration.ofHours(24));
+    verify(articleEventPublisher).publishStored(List.of("recent-123", "another-789"));
     verify(acknowledgment).acknowledge();
   }
 
   @Test
   void shouldStopProcessingOnFirstError() throws Exception {
     // Given
-    ConsumerRecord<String, String> record1 = new ConsumerRecord<>("news", 0, 0, "key1", recentArticleJson);
-    String invalidJson = "{invalid-json}";
-    ConsumerRecord<String, String> record2 = new ConsumerRecord<>("news", 0, 1, "key2", invalidJson);
-    List<ConsumerRecord<String, String>> records = Arrays.asList(record1, record2);
+    ConsumerRecord<String, NewsArticle> record1 = new ConsumerRecord<>("news", 0, 0, "key1", recentArticle);
+    ConsumerRecord<String, NewsArticle> record2 = undecodableRecord(1, "{invalid-json}");
+    List<ConsumerRecord<String, NewsArticle>> records = Arrays.asList(record1, record2);
 
-    when(objectMapper.readValue(recentArticleJson, NewsArticle.class)).thenReturn(recentArticle);
-    when(redisTemplate.hasKey("article:recent-123")).thenReturn(false);
-    when(objectMapper.readValue(invalidJson, NewsArticle.class)).thenThrow(new RuntimeException("Invalid JSON"));
-    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    givenCreated(true);
 
     // When
+    BatchListenerFailedException thrown = assertThrows(BatchListenerFailedException.class,
+        () -> newsConsumerService.consume(records, acknowledgment));
+
+    // Then
+    verify(valueOperations).setIfAbsent("article:recent-123", recentArticle, Duration.ofHours(24));
+    verify(articleEventPublisher).publishStored(List.of("recent-123"));
+    // Only the failed record and those after it are retried
+    assertSame(record2, thrown.getRecord());
+    verify(acknowledgment, never()).acknowledge();
+  }
+
+  @Test
+  void shouldRemoveCreatedArticlesWhenIndexingFails() throws Exception {
+    // Given
+    ConsumerRecord<String, NewsArticle> record = new ConsumerRecord<>("news", 0, 0, "key1", recentArticle);
+    List<ConsumerRecord<String, NewsArticle>> records = Arrays.asList(record);
+
+    givenCreated(true);
+    doThrow(new RuntimeException("Redis unavailable")).when(articleIndexer).indexAll(any(), any());
+
+    // When
+    newsConsumerService.consume(records, acknowledgment);
+
+    // Then
+    verify(redisTemplate).delete(List.of("article:recent-123"));
+    verifyNoInteractions(articleEventPublisher);
+    verify(acknowledgment).nack(0, Duration.ofSeconds(10));
+    verify(acknowledgment, never()).acknowledge();
+  }
+
+  @Test
+  void shouldRedeliverFromFirstWrittenRecordWhenWriteFails() throws Exception {
+    // Given
+    ConsumerRecord<String, NewsArticle> record1 = new ConsumerRecord<>("news", 0, 0, "key1", oldArticle);
+    ConsumerRecord<String, NewsArticle> record2 = new ConsumerRecord<>("news", 0, 1, "key2", recentArticle);
+    ConsumerRecord<String, NewsArticle> record3 = undecodableRecord(2, "{invalid-json}");
+    List<ConsumerRecord<String, NewsArticle>> records = Arrays.asList(record1, record2, record3);
+
+    when(redisTemplate.executePipelined(any(SessionCallback.class)))
+        .thenThrow(new RedisConnectionFailureException("Redis unavailable"));
+
+    // When, no BatchListenerFailedException so the error handler never dead-letters the records
     newsConsumerService.consume(records, acknowledgment);
 
     // Then
-    verify(redisTemplate.opsForValue()).set("article:recent-123", recentArticle);
+    verify(acknowledgment).nack(1, Duration.ofSeconds(10));
     verify(acknowledgment, never()).acknowledge();
   }
+
+  // What ErrorHandlingDeserializer hands to the listener for a payload it cannot parse
+  private static ConsumerRecord<String, NewsArticle> undecodableRecord(long offset, String payload) {
+    RecordHeaders headers = new RecordHeaders();
+    ArticleCodec codec = new ArticleCodec(ArticleCodec.Format.JSON);
+    NewsArticle value = new ErrorHandlingDeserializer<>(new NewsArticleDeserializer(codec))
+        .deserialize("news", headers, payload.getBytes(StandardCharsets.UTF_8));
+    return new ConsumerRecord<>("news", 0, offset, ConsumerRecord.NO_TIMESTAMP, TimestampType.NO_TIMESTAMP_TYPE,
+        ConsumerRecord.NULL_SIZE, ConsumerRecord.NULL_SIZE, "key" + offset, value, headers, Optional.empty());
+  }
+
+  // Runs the pipelined SET NX EX against the mocks and answers with the given per-article results
+  private void givenCreated(Boolean... created) {
+    when(pipelineOperations.opsForValue()).thenReturn(valueOperations);
+    when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+      SessionCallback<?> callback = invocation.getArgument(0);
+      callback.execute(pipelineOperations);
+      return Arrays.asList((Object[]) created);
+    });
+  }
 }
@@ -0,0 +1,18 @@
+package news.model;
+
+import java.util.Locale;
+
+/**
+ * Category names as used in the per-category index keys. The consumer names the indexes and the
+ * app resolves filters with the same function, so a filter matches whatever the feed sent.
+ */
+public final class Categories {
+
+  private Categories() {
+  }
+
+  // Matched case-insensitively, tabs and newlines would break the consumer's index entry encoding
+  public static String normalize(String category) {
+    return category.trim().toLowerCase(Locale.ROOT).replaceAll("[\\t\\n]", " ");
+  }
+}
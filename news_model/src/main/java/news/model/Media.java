@@ -1,4 +1,4 @@
-package news.api.dto;
+package news.model;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
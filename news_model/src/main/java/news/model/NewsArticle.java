@@ -0,0 +1,42 @@
+package news.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import news.model.codec.ArticleJson;
+
+/**
+ * A feed item as it travels from the producer through Kafka and Redis to the API. Every encoding
+ * of it, including an ObjectMapper in a web layer, goes through the hand-written {@link ArticleJson},
+ * so the wire field names ({@code guid}, {@code description}, {@code pubDate} as epoch millis) are
+ * defined in one place.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonSerialize(using = ArticleJson.Serializer.class)
+@JsonDeserialize(using = ArticleJson.Deserializer.class)
+public class NewsArticle {
+  private String id;
+
+  private String title;
+
+  private String link;
+
+  private String content;
+
+  private String creator;
+
+  // Local time of the service, exchanged as epoch millis
+  private LocalDateTime publishedAt;
+
+  private List<String> categories;
+
+  private Media media;
+}
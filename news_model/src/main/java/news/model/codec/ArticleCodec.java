@@ -0,0 +1,91 @@
+package news.model.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import news.model.NewsArticle;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Encodes articles as JSON or as Smile, Jackson's binary JSON, which writes back-references for
+ * repeated field names and keeps numbers in binary. Reading detects the format from the leading
+ * bytes, so both encodings can be mixed on a topic or in Redis while producers and consumers are
+ * switched over one at a time. Thread-safe, both factories are shared, and each thread encodes
+ * into its own reused buffer so only the returned array is allocated per value.
+ */
+public class ArticleCodec {
+
+  public enum Format {
+    JSON,
+    SMILE;
+
+    /**
+     * Smile documents start with the {@code :)\n} header, which also carries the format version;
+     * anything else is read as JSON.
+     */
+    public static Format of(byte[] data) {
+      return data.length >= 3 && data[0] == ':' && data[1] == ')' && data[2] == '\n' ? SMILE : JSON;
+    }
+  }
+
+  private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+      .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+      .build();
+
+  private static final SmileFactory SMILE_FACTORY = SmileFactory.builder()
+      .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+      .build();
+
+  // Articles are a few KB at most, a buffer grown past this by an outlier is not kept
+  private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+  private static final ThreadLocal<ByteArrayOutputStream> BUFFER =
+      ThreadLocal.withInitial(() -> new ByteArrayOutputStream(4096));
+
+  private final Format writeFormat;
+
+  /**
+   * @param writeFormat the encoding new values are written in
+   */
+  public ArticleCodec(Format writeFormat) {
+    this.writeFormat = writeFormat;
+  }
+
+  public byte[] encode(NewsArticle article) throws IOException {
+    ByteArrayOutputStream out = BUFFER.get();
+    out.reset();
+    try {
+      encode(article, out);
+      return out.toByteArray();
+    } finally {
+      if (out.size() > MAX_RETAINED_BUFFER) {
+        BUFFER.remove();
+      }
+    }
+  }
+
+  /**
+   * Writes the article to the stream without closing it.
+   */
+  public void encode(NewsArticle article, OutputStream out) throws IOException {
+    try (JsonGenerator gen = factory(writeFormat).createGenerator(out)) {
+      ArticleJson.write(gen, article);
+    }
+  }
+
+  public NewsArticle decode(byte[] data) throws IOException {
+    try (JsonParser p = factory(Format.of(data)).createParser(data)) {
+      p.nextToken();
+      return ArticleJson.read(p);
+    }
+  }
+
+  private static JsonFactory factory(Format format) {
+    return format == Format.SMILE ? SMILE_FACTORY : JSON_FACTORY;
+  }
+}
@@ -0,0 +1,219 @@
+package news.model.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import news.model.Media;
+import news.model.NewsArticle;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hand-written mapping between {@link NewsArticle} and Jackson's streaming API. It works for any
+ * {@code JsonFactory}, so the same code writes JSON and Smile, and it involves no bean
+ * introspection or converters. Null fields are left out and unknown fields are skipped, so fields
+ * can be added without breaking older readers.
+ */
+public final class ArticleJson {
+
+  private static final SerializedString GUID = new SerializedString("guid");
+  private static final SerializedString TITLE = new SerializedString("title");
+  private static final SerializedString LINK = new SerializedString("link");
+  private static final SerializedString DESCRIPTION = new SerializedString("description");
+  private static final SerializedString CREATOR = new SerializedString("creator");
+  private static final SerializedString PUB_DATE = new SerializedString("pubDate");
+  private static final SerializedString CATEGORIES = new SerializedString("categories");
+  private static final SerializedString MEDIA = new SerializedString("media");
+  private static final SerializedString WIDTH = new SerializedString("width");
+  private static final SerializedString URL = new SerializedString("url");
+  private static final SerializedString HEIGHT = new SerializedString("height");
+
+  private ArticleJson() {
+  }
+
+  public static void write(JsonGenerator gen, NewsArticle article) throws IOException {
+    gen.writeStartObject();
+    writeString(gen, GUID, article.getId());
+    writeString(gen, TITLE, article.getTitle());
+    writeString(gen, LINK, article.getLink());
+    writeString(gen, DESCRIPTION, article.getContent());
+    writeString(gen, CREATOR, article.getCreator());
+    if (article.getPublishedAt() != null) {
+      gen.writeFieldName(PUB_DATE);
+      gen.writeNumber(article.getPublishedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+    if (article.getCategories() != null) {
+      gen.writeFieldName(CATEGORIES);
+      gen.writeStartArray();
+      for (String category : article.getCategories()) {
+        gen.writeString(category);
+      }
+      gen.writeEndArray();
+    }
+    Media media = article.getMedia();
+    if (media != null) {
+      gen.writeFieldName(MEDIA);
+      gen.writeStartObject();
+      gen.writeFieldName(WIDTH);
+      gen.writeNumber(media.getWidth());
+      writeString(gen, URL, media.getUrl());
+      gen.writeFieldName(HEIGHT);
+      gen.writeNumber(media.getHeight());
+      gen.writeEndObject();
+    }
+    gen.writeEndObject();
+  }
+
+  /**
+   * Reads an article starting at the parser's current token, which is either the object's
+   * START_OBJECT or its first field name. Leaves the parser on the closing END_OBJECT.
+   */
+  public static NewsArticle read(JsonParser p) throws IOException {
+    JsonToken token = p.currentToken();
+    if (token == JsonToken.START_OBJECT) {
+      token = p.nextToken();
+    }
+
+    NewsArticle article = new NewsArticle();
+    for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+      String name = p.currentName();
+      p.nextToken();
+      switch (name) {
+        case "guid" -> article.setId(readString(p));
+        case "title" -> article.setTitle(readString(p));
+        case "link" -> article.setLink(readString(p));
+        case "description" -> article.setContent(readString(p));
+        case "creator" -> article.setCreator(readString(p));
+        case "pubDate" -> article.setPublishedAt(readDate(p));
+        case "categories" -> article.setCategories(readStrings(p));
+        case "media" -> article.setMedia(readMedia(p));
+        default -> p.skipChildren();
+      }
+    }
+    expect(p, token, JsonToken.END_OBJECT);
+    return article;
+  }
+
+  private static void writeString(JsonGenerator gen, SerializedString name, String value) throws IOException {
+    if (value != null) {
+      gen.writeFieldName(name);
+      gen.writeString(value);
+    }
+  }
+
+  private static String readString(JsonParser p) throws IOException {
+    JsonToken token = p.currentToken();
+    if (token == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    expect(p, token, JsonToken.VALUE_STRING);
+    return p.getText();
+  }
+
+  private static int readInt(JsonParser p) throws IOException {
+    JsonToken token = p.currentToken();
+    if (token == JsonToken.VALUE_NULL) {
+      return 0;
+    }
+    expect(p, token, JsonToken.VALUE_NUMBER_INT);
+    return p.getIntValue();
+  }
+
+  // Epoch millis as written here, or the ISO form Jackson writes for a Date when timestamps are off
+  private static LocalDateTime readDate(JsonParser p) throws IOException {
+    JsonToken token = p.currentToken();
+    if (token == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    Instant instant;
+    if (token == JsonToken.VALUE_NUMBER_INT) {
+      instant = Instant.ofEpochMilli(p.getLongValue());
+    } else {
+      expect(p, token, JsonToken.VALUE_STRING);
+      try {
+        instant = OffsetDateTime.parse(p.getText()).toInstant();
+      } catch (DateTimeParseException e) {
+        throw new JsonParseException(p, "Invalid pubDate " + p.getText(), e);
+      }
+    }
+    return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+  }
+
+  private static List<String> readStrings(JsonParser p) throws IOException {
+    JsonToken token = p.currentToken();
+    if (token == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    expect(p, token, JsonToken.START_ARRAY);
+    List<String> values = new ArrayList<>();
+    while (p.nextToken() != JsonToken.END_ARRAY) {
+      values.add(readString(p));
+    }
+    return values;
+  }
+
+  private static Media readMedia(JsonParser p) throws IOException {
+    JsonToken token = p.currentToken();
+    if (token == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    expect(p, token, JsonToken.START_OBJECT);
+    Media media = new Media();
+    for (token = p.nextToken(); token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+      String name = p.currentName();
+      p.nextToken();
+      switch (name) {
+        case "width" -> media.setWidth(readInt(p));
+        case "url" -> media.setUrl(readString(p));
+        case "height" -> media.setHeight(readInt(p));
+        default -> p.skipChildren();
+      }
+    }
+    expect(p, token, JsonToken.END_OBJECT);
+    return media;
+  }
+
+  private static void expect(JsonParser p, JsonToken actual, JsonToken expected) throws JsonParseException {
+    if (actual != expected) {
+      throw new JsonParseException(p, "Expected " + expected + " but found " + actual);
+    }
+  }
+
+  // Lets an ObjectMapper, e.g. the one rendering API responses, write articles through this class
+  public static class Serializer extends StdSerializer<NewsArticle> {
+
+    public Serializer() {
+      super(NewsArticle.class);
+    }
+
+    @Override
+    public void serialize(NewsArticle article, JsonGenerator gen, SerializerProvider provider) throws IOException {
+      write(gen, article);
+    }
+  }
+
+  public static class Deserializer extends StdDeserializer<NewsArticle> {
+
+    public Deserializer() {
+      super(NewsArticle.class);
+    }
+
+    @Override
+    public NewsArticle deserialize(JsonParser p, DeserializationContext context) throws IOException {
+      return read(p);
+    }
+  }
+}
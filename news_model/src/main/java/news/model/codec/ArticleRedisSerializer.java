@@ -0,0 +1,46 @@
+package news.model.codec;
+
+import news.model.NewsArticle;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+
+// Redis value serializer backed by an ArticleCodec, reads values written in either format
+public class ArticleRedisSerializer implements RedisSerializer<NewsArticle> {
+
+  private final ArticleCodec codec;
+
+  public ArticleRedisSerializer(ArticleCodec codec) {
+    this.codec = codec;
+  }
+
+  @Override
+  public byte[] serialize(NewsArticle article) throws SerializationException {
+    if (article == null) {
+      return new byte[0];
+    }
+    try {
+      return codec.encode(article);
+    } catch (IOException e) {
+      throw new SerializationException("Could not write article " + article.getId(), e);
+    }
+  }
+
+  @Override
+  public NewsArticle deserialize(byte[] bytes) throws SerializationException {
+    if (bytes == null || bytes.length == 0) {
+      return null;
+    }
+    try {
+      return codec.decode(bytes);
+    } catch (IOException e) {
+      throw new SerializationException("Could not read article", e);
+    }
+  }
+
+  @Override
+  public Class<?> getTargetType() {
+    return NewsArticle.class;
+  }
+}
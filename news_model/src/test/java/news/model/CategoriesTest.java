@@ -0,0 +1,14 @@
+package news.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CategoriesTest {
+
+  @Test
+  void shouldNormalizeCaseWhitespaceAndControlCharacters() {
+    assertEquals("artificial intelligence", Categories.normalize("  Artificial Intelligence "));
+    assertEquals("united states politics", Categories.normalize("United\tStates\nPolitics"));
+  }
+}
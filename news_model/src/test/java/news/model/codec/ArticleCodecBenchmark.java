@@ -0,0 +1,89 @@
+package news.model.codec;
+
+import news.model.Media;
+import news.model.NewsArticle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode cost of an article in each {@link ArticleCodec.Format}. The encoded size of
+ * the sample article is printed once per format, which is the per-message saving on the topic
+ * and, before Redis' own overhead, per stored value:
+ *
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) news.model.codec.ArticleCodecBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArticleCodecBenchmark {
+
+  @Param({"JSON", "SMILE"})
+  private ArticleCodec.Format format;
+
+  private ArticleCodec codec;
+
+  private NewsArticle article;
+
+  private byte[] encoded;
+
+  @Setup
+  public void setUp() throws IOException {
+    codec = new ArticleCodec(format);
+
+    // Shaped like a feed item as sent by the producer, with a typical multi-sentence description
+    article = NewsArticle.builder()
+        .id("5f0c6a7e9d3b4c1a8e2f7b6d5c4a3b2e1f0d9c8b7a6e5d4c3b2a1f0e9d8c7b6a")
+        .title("Senate Passes Spending Bill After Late-Night Session")
+        .link("https://www.nytimes.com/2024/05/01/us/politics/senate-spending-bill.html")
+        .content("Lawmakers met late into the night to negotiate the final details of the bill. ".repeat(6))
+        .creator("Jane Doe and John Roe")
+        .publishedAt(LocalDateTime.of(2024, 5, 1, 12, 0))
+        .categories(List.of("United States Politics and Government", "Senate", "Federal Budget (US)"))
+        .media(new Media(1800, "https://static01.nyt.com/images/2024/05/01/multimedia/senate.jpg", 1200))
+        .build();
+    encoded = codec.encode(article);
+    System.out.printf("%n%s: %d bytes per article%n", format, encoded.length);
+  }
+
+  @Benchmark
+  public byte[] encode() throws IOException {
+    return codec.encode(article);
+  }
+
+  @Benchmark
+  public NewsArticle decode() throws IOException {
+    return codec.decode(encoded);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(ArticleCodecBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build())
+        .run();
+  }
+}
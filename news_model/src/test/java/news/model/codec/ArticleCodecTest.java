@@ -0,0 +1,150 @@
+package news.model.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import news.model.Media;
+import news.model.NewsArticle;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ArticleCodecTest {
+
+  private final ArticleCodec jsonCodec = new ArticleCodec(ArticleCodec.Format.JSON);
+
+  private final ArticleCodec smileCodec = new ArticleCodec(ArticleCodec.Format.SMILE);
+
+  @Test
+  void shouldReadValuesWrittenByReflectionBasedMapping() throws Exception {
+    // Given, as the producer's map and Jackson2JsonRedisSerializer used to write them
+    long pubDate = LocalDateTime.of(2024, 5, 1, 12, 30).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    String legacy = "{\"guid\":\"abc\",\"title\":\"Title\",\"link\":\"https://example.com/abc\","
+        + "\"description\":\"Description\",\"creator\":null,\"pubDate\":" + pubDate + ","
+        + "\"categories\":[\"World\",\"Politics\"],\"media\":{\"width\":640,\"url\":\"https://example.com/a.jpg\",\"height\":null},"
+        + "\"unknown\":{\"nested\":[1,2]}}";
+
+    // When
+    NewsArticle article = jsonCodec.decode(legacy.getBytes(StandardCharsets.UTF_8));
+
+    // Then
+    assertEquals(article(), article);
+  }
+
+  @Test
+  void shouldEncodeTheSameWayThroughAnObjectMapper() throws Exception {
+    // Given
+    NewsArticle article = article();
+
+    // When
+    String viaMapper = new ObjectMapper().writeValueAsString(article);
+
+    // Then
+    assertEquals(new String(jsonCodec.encode(article), StandardCharsets.UTF_8), viaMapper);
+    assertEquals(article, new ObjectMapper().readValue(viaMapper, NewsArticle.class));
+  }
+
+  @Test
+  void shouldReadEitherFormatRegardlessOfWriteFormat() throws Exception {
+    // Given
+    NewsArticle article = article();
+    byte[] json = jsonCodec.encode(article);
+    byte[] smile = smileCodec.encode(article);
+
+    // Then
+    assertEquals(ArticleCodec.Format.JSON, ArticleCodec.Format.of(json));
+    assertEquals(ArticleCodec.Format.SMILE, ArticleCodec.Format.of(smile));
+    assertEquals(article, jsonCodec.decode(smile));
+    assertEquals(article, smileCodec.decode(json));
+  }
+
+  @Test
+  void shouldLeaveOutNullFields() throws Exception {
+    // Given
+    NewsArticle article = NewsArticle.builder().id("abc").build();
+
+    // When
+    byte[] bytes = jsonCodec.encode(article);
+
+    // Then
+    assertEquals("{\"guid\":\"abc\"}", new String(bytes, StandardCharsets.UTF_8));
+    assertNull(jsonCodec.decode(bytes).getPublishedAt());
+  }
+
+  @Test
+  void shouldWriteSmallerValuesInSmile() throws Exception {
+    // Given
+    NewsArticle article = article();
+
+    // When
+    int jsonSize = jsonCodec.encode(article).length;
+    int smileSize = smileCodec.encode(article).length;
+
+    // Then
+    assertTrue(smileSize < jsonSize, "smile " + smileSize + " bytes, json " + jsonSize + " bytes");
+  }
+
+  @Test
+  void shouldReturnIndependentValuesFromTheReusedBuffer() throws Exception {
+    // Given
+    NewsArticle large = NewsArticle.builder().id("large").content("x".repeat(100_000)).build();
+    NewsArticle small = NewsArticle.builder().id("abc").build();
+
+    // When
+    byte[] first = jsonCodec.encode(large);
+    byte[] second = jsonCodec.encode(small);
+    byte[] third = jsonCodec.encode(article());
+
+    // Then
+    assertEquals(large, jsonCodec.decode(first));
+    assertEquals("{\"guid\":\"abc\"}", new String(second, StandardCharsets.UTF_8));
+    assertEquals(article(), jsonCodec.decode(third));
+  }
+
+  @Test
+  void shouldLeaveTheTargetStreamOpen() throws Exception {
+    // Given
+    ByteArrayOutputStream out = new ByteArrayOutputStream() {
+      @Override
+      public void close() {
+        throw new AssertionError("closed");
+      }
+    };
+
+    // When
+    smileCodec.encode(article(), out);
+    smileCodec.encode(article(), out);
+
+    // Then
+    assertArrayEquals(smileCodec.encode(article()), Arrays.copyOf(out.toByteArray(), out.size() / 2));
+  }
+
+  @Test
+  void shouldFailOnMistypedField() {
+    byte[] bytes = "{\"guid\":\"abc\",\"categories\":\"World\"}".getBytes(StandardCharsets.UTF_8);
+
+    assertThrows(IOException.class, () -> jsonCodec.decode(bytes));
+  }
+
+  private static NewsArticle article() {
+    return NewsArticle.builder()
+        .id("abc")
+        .title("Title")
+        .link("https://example.com/abc")
+        .content("Description")
+        .publishedAt(LocalDateTime.of(2024, 5, 1, 12, 30))
+        .categories(List.of("World", "Politics"))
+        .media(new Media(640, "https://example.com/a.jpg", 0))
+        .build();
+  }
+}
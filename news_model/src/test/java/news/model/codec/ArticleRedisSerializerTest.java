@@ -0,0 +1,39 @@
+package news.model.codec;
+
+import news.model.NewsArticle;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class ArticleRedisSerializerTest {
+
+  private final ArticleRedisSerializer serializer =
+      new ArticleRedisSerializer(new ArticleCodec(ArticleCodec.Format.JSON));
+
+  @Test
+  void shouldReadValuesStoredAsJsonOrSmile() throws Exception {
+    // Given
+    NewsArticle article = NewsArticle.builder()
+        .id("abc")
+        .title("Title")
+        .publishedAt(LocalDateTime.of(2024, 5, 1, 12, 30))
+        .categories(List.of("World"))
+        .build();
+    byte[] json = serializer.serialize(article);
+    byte[] smile = new ArticleCodec(ArticleCodec.Format.SMILE).encode(article);
+
+    // Then
+    assertEquals(article, serializer.deserialize(json));
+    assertEquals(article, serializer.deserialize(smile));
+  }
+
+  @Test
+  void shouldReadMissingValueAsNull() {
+    assertNull(serializer.deserialize(null));
+    assertNull(serializer.deserialize(new byte[0]));
+  }
+}
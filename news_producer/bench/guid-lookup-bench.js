@@ -0,0 +1,80 @@
+// Compares processedGuids lookups with hex string ids against 32-byte binary ids.
+//
+//   docker exec -i -e DOCUMENTS=10000000 mongo mongosh --quiet < news_producer/bench/guid-lookup-bench.js
+//
+// Loads DOCUMENTS random GUIDs into two collections of the guidbench database, one per id form,
+// unless they already hold that many. Then it times LOOKUPS $in queries of BATCH ids each, half
+// of them present and half absent, like the producer's dedup query for one feed. It prints the
+// storage and index size of each collection and the query latency percentiles.
+//
+// Latency depends on whether the _id index fits in the WiredTiger cache. To see the effect of the
+// smaller index, start mongod with a cache below the hex index size, e.g. --wiredTigerCacheSizeGB 0.25.
+const crypto = require('crypto');
+
+const documents = Number(process.env.DOCUMENTS || 10000000);
+const lookups = Number(process.env.LOOKUPS || 2000);
+const batch = Number(process.env.BATCH || 50);
+const bench = db.getSiblingDB('guidbench');
+const expireAt = new Date(Date.now() + 14 * 24 * 60 * 60 * 1000);
+
+const forms = {
+  hex: bytes => bytes.toString('hex'),
+  binary: bytes => BinData(0, bytes.toString('base64'))
+};
+
+function load(name, toId) {
+  const collection = bench.getCollection(name);
+  const existing = collection.estimatedDocumentCount();
+  if (existing >= documents) {
+    print(`${name}: reusing ${existing} documents`);
+    return;
+  }
+  collection.drop();
+  for (let loaded = 0; loaded < documents; loaded += 10000) {
+    const docs = [];
+    for (let i = 0; i < Math.min(10000, documents - loaded); i++) {
+      docs.push({ _id: toId(crypto.randomBytes(32)), expireAt: expireAt });
+    }
+    collection.insertMany(docs, { ordered: false });
+  }
+  collection.createIndex({ expireAt: 1 }, { name: 'expireAt', expireAfterSeconds: 0 });
+  print(`${name}: loaded ${documents} documents`);
+}
+
+function percentile(sorted, p) {
+  return sorted[Math.min(sorted.length - 1, Math.floor(sorted.length * p))];
+}
+
+function measure(name, toId) {
+  const collection = bench.getCollection(name);
+  const present = collection.aggregate([{ $sample: { size: lookups * Math.ceil(batch / 2) } }, { $project: { _id: 1 } }])
+    .toArray()
+    .map(doc => doc._id);
+  const latencies = [];
+  for (let i = 0; i < lookups; i++) {
+    const ids = present.slice(i * Math.ceil(batch / 2), (i + 1) * Math.ceil(batch / 2));
+    while (ids.length < batch) {
+      ids.push(toId(crypto.randomBytes(32)));
+    }
+    const start = process.hrtime.bigint();
+    collection.find({ _id: { $in: ids } }, { _id: 1 }).toArray();
+    latencies.push(Number(process.hrtime.bigint() - start) / 1e6);
+  }
+  latencies.sort((a, b) => a - b);
+  const stats = collection.stats();
+  const mean = latencies.reduce((sum, value) => sum + value, 0) / latencies.length;
+  print(`${name}: storage ${(stats.storageSize / 1048576).toFixed(1)} MB, `
+    + `_id index ${(stats.indexSizes._id_ / 1048576).toFixed(1)} MB, `
+    + `lookup of ${batch} ids ms mean ${mean.toFixed(2)} p50 ${percentile(latencies, 0.5).toFixed(2)} `
+    + `p95 ${percentile(latencies, 0.95).toFixed(2)} p99 ${percentile(latencies, 0.99).toFixed(2)}`);
+}
+
+for (const [name, toId] of Object.entries(forms)) {
+  load(name, toId);
+}
+// Alternate the forms, so neither one always runs on a cache warmed by the other
+for (let round = 0; round < 2; round++) {
+  for (const [name, toId] of Object.entries(forms)) {
+    measure(name, toId);
+  }
+}
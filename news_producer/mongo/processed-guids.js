@@ -0,0 +1,54 @@
+// Prepares the processedGuids collection for binary GUIDs that expire:
+//   - creates the TTL index on expireAt
+//   - rewrites documents keyed by a 64-char hex string to the 32 bytes it encodes
+//
+//   docker exec -i -e TTL_DAYS=14 mongo mongosh newsdb --quiet < news_producer/mongo/processed-guids.js
+//
+// Run it before starting a producer that stores binary GUIDs, otherwise that producer does not
+// find the hex documents and sends their articles again. It can be run any number of times.
+// TTL_DAYS should match app.guids.ttl. When a hex document was processed is unknown, so it gets a
+// full TTL from now.
+const ttlDays = Number(process.env.TTL_DAYS || 14);
+const batchSize = Number(process.env.BATCH_SIZE || 1000);
+const processedGuids = db.getCollection('processedGuids');
+
+processedGuids.createIndex({ expireAt: 1 }, { name: 'expireAt', expireAfterSeconds: 0 });
+
+const expireAt = new Date(Date.now() + ttlDays * 24 * 60 * 60 * 1000);
+let ops = [];
+let migrated = 0;
+let skipped = 0;
+
+function flush() {
+  if (ops.length > 0) {
+    processedGuids.bulkWrite(ops, { ordered: false });
+    ops = [];
+  }
+}
+
+processedGuids.find({ _id: { $type: 'string' } }).forEach(doc => {
+  if (!/^[0-9a-fA-F]{64}$/.test(doc._id)) {
+    skipped++;
+    return;
+  }
+  // Upsert first, so a run interrupted between the two leaves no GUID missing
+  ops.push({
+    updateOne: {
+      filter: { _id: HexData(0, doc._id) },
+      update: { $setOnInsert: { expireAt: expireAt } },
+      upsert: true
+    }
+  });
+  ops.push({ deleteOne: { filter: { _id: doc._id } } });
+  migrated++;
+  if (ops.length >= 2 * batchSize) {
+    flush();
+  }
+});
+flush();
+
+// Binary documents written without an expiry would never be removed
+const backfilled = processedGuids.updateMany({ expireAt: { $exists: false } }, { $set: { expireAt: expireAt } });
+
+print(`Migrated ${migrated} hex GUIDs to binary, skipped ${skipped} that are not SHA-256 hex, `
+  + `set expireAt on ${backfilled.modifiedCount} more`);
@@ -1,13 +1,42 @@
 package news.producer.config;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import news.model.codec.ArticleCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
+@EnableConfigurationProperties({FeedProperties.class, GuidFilterProperties.class})
 public class AppConfig {
+  // Timeouts keep an unresponsive feed from holding a fetch thread indefinitely
   @Bean
-  public RestTemplate restTemplate() {
-    return new RestTemplate();
+  public RestTemplate restTemplate(RestTemplateBuilder builder, FeedProperties feedProperties) {
+    return builder
+        .connectTimeout(feedProperties.connectTimeout())
+        .readTimeout(feedProperties.readTimeout())
+        .build();
+  }
+
+  // Fetches run here, the scheduling thread only dispatches due feeds
+  @Bean(destroyMethod = "shutdown")
+  public ExecutorService feedFetchPool(FeedProperties feedProperties) {
+    return Executors.newFixedThreadPool(Math.max(feedProperties.parallelism(), 1),
+        new CustomizableThreadFactory("feed-fetch-"));
+  }
+
+  /**
+   * Writes the article values sent to Kafka as {@code app.kafka.value-format}: json, or smile for
+   * Jackson's binary JSON. The consumer detects the format of each record, so it has to run a
+   * version that reads Smile before this is switched.
+   */
+  @Bean
+  public ArticleCodec articleCodec(@Value("${app.kafka.value-format:json}") ArticleCodec.Format valueFormat) {
+    return new ArticleCodec(valueFormat);
   }
 }
@@ -0,0 +1,27 @@
+package news.producer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The feeds to ingest and how they are fetched, bound from {@code app.feeds.*}.
+ *
+ * @param sources        the feeds; fetch rate, charset and topic may be left out per source
+ * @param parallelism    feeds fetched at the same time
+ * @param maxBackoff     upper bound on the delay before retrying a failing feed
+ * @param connectTimeout HTTP connect timeout per fetch
+ * @param readTimeout    HTTP read timeout per fetch, bounds how long a slow feed holds a thread
+ */
+@ConfigurationProperties(prefix = "app.feeds")
+public record FeedProperties(@DefaultValue List<Source> sources,
+                             @DefaultValue("4") int parallelism,
+                             @DefaultValue("30m") Duration maxBackoff,
+                             @DefaultValue("5s") Duration connectTimeout,
+                             @DefaultValue("30s") Duration readTimeout) {
+
+  public record Source(String name, String url, Duration fetchRate, String charset, String topic) {
+  }
+}
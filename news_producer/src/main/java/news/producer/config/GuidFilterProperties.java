@@ -0,0 +1,22 @@
+package news.producer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * The in-memory filter of processed GUIDs checked before MongoDB, bound from
+ * {@code app.guid-filter.*}.
+ *
+ * @param enabled           when false every GUID is looked up in MongoDB
+ * @param expectedItems     new GUIDs expected per window, the filter is sized for this many
+ * @param falsePositiveRate share of unseen GUIDs still looked up in MongoDB at the expected load
+ * @param window            how long a generation of the filter takes GUIDs before it is rotated
+ */
+@ConfigurationProperties(prefix = "app.guid-filter")
+public record GuidFilterProperties(@DefaultValue("true") boolean enabled,
+                                   @DefaultValue("100000") long expectedItems,
+                                   @DefaultValue("0.01") double falsePositiveRate,
+                                   @DefaultValue("7d") Duration window) {
+}
@@ -0,0 +1,98 @@
+package news.producer.dedup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size Bloom filter of strings, safe for concurrent use. {@link #mightContain} never
+ * returns false for a string that was {@linkplain #put put}; it returns true for other strings
+ * with roughly the false-positive rate the filter was sized for, as long as no more than the
+ * expected number of strings are put.
+ */
+class BloomFilter {
+
+  private final AtomicLongArray words;
+
+  private final long bits;
+
+  private final int hashes;
+
+  private final AtomicLong bitsSet = new AtomicLong();
+
+  BloomFilter(long expectedInsertions, double falsePositiveRate) {
+    long n = Math.max(expectedInsertions, 1);
+    // Bit indexes are ints, so the filter is capped at 2^31 bits (256 MB)
+    long m = Math.min((long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))),
+        Integer.MAX_VALUE - 63);
+    this.words = new AtomicLongArray(Math.toIntExact((Math.max(m, 64) + 63) / 64));
+    this.bits = words.length() * 64L;
+    this.hashes = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+  }
+
+  void put(String value) {
+    long hash = hash(value);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    for (int i = 1; i <= hashes; i++) {
+      if (set(index(h1 + i * h2))) {
+        bitsSet.incrementAndGet();
+      }
+    }
+  }
+
+  boolean mightContain(String value) {
+    long hash = hash(value);
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    for (int i = 1; i <= hashes; i++) {
+      long bit = index(h1 + i * h2);
+      if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // The chance that a string never put passes all hash probes, from the share of bits set
+  double expectedFalsePositiveRate() {
+    return Math.pow((double) bitsSet.get() / bits, hashes);
+  }
+
+  long sizeInBytes() {
+    return bits / 8;
+  }
+
+  private long index(int combinedHash) {
+    // Kirsch-Mitzenmacher double hashing, the sign bit is dropped
+    return (combinedHash & Integer.MAX_VALUE) % bits;
+  }
+
+  private boolean set(long bit) {
+    int word = (int) (bit >>> 6);
+    long mask = 1L << bit;
+    long current;
+    do {
+      current = words.get(word);
+      if ((current & mask) != 0) {
+        return false;
+      }
+    } while (!words.compareAndSet(word, current, current | mask));
+    return true;
+  }
+
+  // 64-bit FNV-1a over the UTF-8 bytes with the MurmurHash3 finalizer for better bit spread
+  private static long hash(String value) {
+    long hash = 0xcbf29ce484222325L;
+    for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+      hash ^= b & 0xff;
+      hash *= 0x100000001b3L;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
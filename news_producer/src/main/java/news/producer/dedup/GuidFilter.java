@@ -0,0 +1,187 @@
+package news.producer.dedup;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import news.producer.config.GuidFilterProperties;
+import news.producer.entity.ProcessedGuid;
+import news.producer.repository.ProcessedGuidRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filters of processed GUIDs kept in front of {@link ProcessedGuidRepository}, so only
+ * GUIDs that may have been processed are looked up in MongoDB. The filter is loaded from the
+ * {@code processedGuids} collection on first use and then holds two generations: new and
+ * confirmed GUIDs go into the current one, which replaces the previous one every
+ * {@code app.guid-filter.window}. A GUID still listed by a feed is confirmed on every fetch and
+ * stays in the filter; one that is not seen for two windows is forgotten, and would be sent
+ * again if a feed brought it back.
+ */
+@Component
+@Slf4j
+public class GuidFilter {
+
+  private final GuidFilterProperties properties;
+
+  private final ProcessedGuidRepository processedGuidRepository;
+
+  private final Counter skipped;
+
+  private final Counter confirmed;
+
+  private final Counter falsePositives;
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private volatile Generations generations;
+
+  // Set once the collection is loaded, until then every GUID is looked up
+  private volatile boolean loaded;
+
+  private Clock clock = Clock.systemUTC();
+
+  public GuidFilter(GuidFilterProperties properties,
+                    ProcessedGuidRepository processedGuidRepository,
+                    MeterRegistry registry) {
+    this.properties = properties;
+    this.processedGuidRepository = processedGuidRepository;
+    this.skipped = Counter.builder("news.producer.guid.filter.lookups")
+        .description("GUIDs checked against the filter, by whether MongoDB had to be asked")
+        .tag("result", "skipped")
+        .register(registry);
+    this.confirmed = Counter.builder("news.producer.guid.filter.lookups")
+        .tag("result", "processed")
+        .register(registry);
+    this.falsePositives = Counter.builder("news.producer.guid.filter.lookups")
+        .tag("result", "false_positive")
+        .register(registry);
+    Gauge.builder("news.producer.guid.filter.false.positive.rate", this, GuidFilter::expectedFalsePositiveRate)
+        .description("Expected share of new GUIDs the filter still sends to MongoDB")
+        .register(registry);
+    Gauge.builder("news.producer.guid.filter.memory", this, GuidFilter::sizeInBytes)
+        .description("Memory held by both filter generations")
+        .baseUnit("bytes")
+        .register(registry);
+  }
+
+  /**
+   * Returns the GUIDs that may have been processed and have to be looked up in MongoDB; the
+   * others have certainly not been.
+   */
+  public List<String> mightContain(List<String> guids) {
+    if (!properties.enabled() || !load()) {
+      return guids;
+    }
+    Generations current = rotateIfDue();
+    List<String> candidates = guids.stream()
+        .filter(current::mightContain)
+        .toList();
+    skipped.increment(guids.size() - candidates.size());
+    return candidates;
+  }
+
+  /**
+   * Records the outcome of looking up {@code candidates} in MongoDB. The processed ones are put
+   * into the current generation, so they are remembered for another window.
+   */
+  public void lookedUp(Collection<String> candidates, Collection<String> processed) {
+    if (!properties.enabled() || !loaded) {
+      return;
+    }
+    confirmed.increment(processed.size());
+    falsePositives.increment(candidates.size() - processed.size());
+    put(processed);
+  }
+
+  public void put(Collection<String> guids) {
+    // While loading, GUIDs saved after the collection was read still have to end up in the filter
+    if (generations == null) {
+      return;
+    }
+    Generations current = rotateIfDue();
+    guids.forEach(current.current()::put);
+  }
+
+  private boolean load() {
+    if (loaded) {
+      return true;
+    }
+    // Only one fetch loads, the others look up their GUIDs meanwhile
+    if (!lock.tryLock()) {
+      return false;
+    }
+    try {
+      if (loaded) {
+        return true;
+      }
+      long count = processedGuidRepository.count();
+      BloomFilter filter = new BloomFilter(count + properties.expectedItems(), properties.falsePositiveRate());
+      generations = new Generations(filter, null, clock.instant().plus(properties.window()));
+      try (Stream<ProcessedGuid> processed = processedGuidRepository.streamAllBy()) {
+        processed.forEach(processedGuid -> filter.put(processedGuid.articleId()));
+      }
+      loaded = true;
+      log.info("Loaded {} processed GUIDs into the GUID filter ({} bytes)", count, filter.sizeInBytes());
+      return true;
+    } catch (RuntimeException e) {
+      generations = null;
+      log.warn("Could not load the GUID filter, looking up every GUID until the next fetch: {}", e.getMessage());
+      return false;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private Generations rotateIfDue() {
+    Generations current = generations;
+    Instant now = clock.instant();
+    if (now.isBefore(current.rotateAt())) {
+      return current;
+    }
+    lock.lock();
+    try {
+      current = generations;
+      if (!now.isBefore(current.rotateAt())) {
+        current = new Generations(new BloomFilter(properties.expectedItems(), properties.falsePositiveRate()),
+            current.current(), now.plus(properties.window()));
+        generations = current;
+      }
+      return current;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private double expectedFalsePositiveRate() {
+    Generations current = generations;
+    if (current == null) {
+      return 0;
+    }
+    // A GUID passes if either generation lets it through
+    double passesPrevious = current.previous() != null ? current.previous().expectedFalsePositiveRate() : 0;
+    return 1 - (1 - current.current().expectedFalsePositiveRate()) * (1 - passesPrevious);
+  }
+
+  private double sizeInBytes() {
+    Generations current = generations;
+    if (current == null) {
+      return 0;
+    }
+    return current.current().sizeInBytes() + (current.previous() != null ? current.previous().sizeInBytes() : 0);
+  }
+
+  private record Generations(BloomFilter current, BloomFilter previous, Instant rotateAt) {
+
+    boolean mightContain(String guid) {
+      return current.mightContain(guid) || (previous != null && previous.mightContain(guid));
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package news.producer.entity;
+
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * The validators of the last feed response whose articles were all sent, sent back as
+ * {@code If-None-Match}/{@code If-Modified-Since} on the next fetch of the feed.
+ */
+@Document(collection = "feedCaches")
+@Data
+@RequiredArgsConstructor
+public class FeedCache {
+  @Id
+  private final String feed;
+  private final String url;
+  private final String etag;
+  private final String lastModified;
+}
@@ -2,13 +2,41 @@ package news.producer.entity;
 
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import news.producer.parser.ArticleId;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * An article already sent to Kafka. The id is stored as the 32 bytes of the SHA-256 article id,
+ * half the size of its hex string in both the documents and the _id index. Documents are
+ * removed by a TTL index once {@code expireAt} has passed, which
+ * {@code mongo/processed-guids.js} creates.
+ */
 @Document(collection = "processedGuids")
 @Data
 @RequiredArgsConstructor
 public class ProcessedGuid {
+  private static final HexFormat HEX = HexFormat.of();
+
   @Id
-  private final String guid;
+  private final byte[] guid;
+  @Indexed(expireAfter = "0s")
+  private final Instant expireAt;
+
+  public static ProcessedGuid of(String articleId, Instant expireAt) {
+    return new ProcessedGuid(key(articleId), expireAt);
+  }
+
+  // Article ids in either format map to the same key
+  public static byte[] key(String articleId) {
+    return ArticleId.decode(articleId);
+  }
+
+  public String articleId() {
+    return HEX.formatHex(guid);
+  }
 }
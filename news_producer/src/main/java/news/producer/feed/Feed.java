@@ -0,0 +1,15 @@
+package news.producer.feed;
+
+import java.time.Duration;
+
+/**
+ * A registered RSS feed.
+ *
+ * @param name      unique name, used in logs
+ * @param url       where the feed is fetched from
+ * @param topic     Kafka topic its articles are sent to
+ * @param charset   charset to decode it with when the response does not declare one
+ * @param fetchRate time between the starts of two fetches
+ */
+public record Feed(String name, String url, String topic, String charset, Duration fetchRate) {
+}
@@ -0,0 +1,47 @@
+package news.producer.feed;
+
+import news.producer.config.FeedProperties;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The feeds configured under {@code app.feeds.sources}. Settings left out for a source fall back
+ * to {@code spring.rss.fetch-rate}, {@code spring.rss.charset} and {@code spring.kafka.topic}.
+ */
+@Component
+public class FeedRegistry {
+
+  private final List<Feed> feeds;
+
+  public FeedRegistry(FeedProperties properties,
+                      @Value("${spring.rss.fetch-rate:60000}") long defaultFetchRate,
+                      @Value("${spring.rss.charset:UTF-8}") String defaultCharset,
+                      @Value("${spring.kafka.topic}") String defaultTopic) {
+    List<Feed> feeds = new ArrayList<>();
+    Set<String> names = new HashSet<>();
+    for (FeedProperties.Source source : properties.sources()) {
+      if (source.url() == null || source.url().isBlank()) {
+        throw new IllegalStateException("Feed " + source.name() + " has no url");
+      }
+      String name = source.name() != null ? source.name() : source.url();
+      if (!names.add(name)) {
+        throw new IllegalStateException("Duplicate feed name " + name);
+      }
+      feeds.add(new Feed(name, source.url(),
+          source.topic() != null ? source.topic() : defaultTopic,
+          source.charset() != null ? source.charset() : defaultCharset,
+          source.fetchRate() != null ? source.fetchRate() : Duration.ofMillis(defaultFetchRate)));
+    }
+    this.feeds = List.copyOf(feeds);
+  }
+
+  public List<Feed> feeds() {
+    return feeds;
+  }
+}
@@ -0,0 +1,123 @@
+package news.producer.job;
+
+import lombok.extern.slf4j.Slf4j;
+import news.producer.config.FeedProperties;
+import news.producer.feed.Feed;
+import news.producer.feed.FeedRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fetches every registered feed at its own rate on the feed fetch pool, so at most
+ * {@code app.feeds.parallelism} fetches run at once. A feed is never fetched twice at the same
+ * time. A failing feed is retried with exponential backoff up to {@code app.feeds.max-backoff};
+ * it only ever holds its own pool thread, so the other feeds keep their schedule.
+ */
+@Component
+@Slf4j
+public class FeedScheduler {
+
+  private final RssToKafkaJob rssToKafkaJob;
+
+  private final Executor executor;
+
+  private final Duration maxBackoff;
+
+  private final List<FeedState> states;
+
+  private Clock clock = Clock.systemUTC();
+
+  public FeedScheduler(FeedRegistry feedRegistry,
+                       RssToKafkaJob rssToKafkaJob,
+                       @Qualifier("feedFetchPool") Executor executor,
+                       FeedProperties properties) {
+    this.rssToKafkaJob = rssToKafkaJob;
+    this.executor = executor;
+    this.maxBackoff = properties.maxBackoff();
+    this.states = feedRegistry.feeds().stream().map(FeedState::new).toList();
+  }
+
+  // Only hands due feeds to the pool, the fetches themselves never run on the scheduling thread
+  @Scheduled(fixedDelayString = "${app.feeds.dispatch-interval:1000}", initialDelay = 1000)
+  public void dispatch() {
+    Instant now = clock.instant();
+    for (FeedState state : states) {
+      if (!state.tryStart(now)) {
+        continue;
+      }
+      try {
+        executor.execute(() -> fetch(state));
+      } catch (RejectedExecutionException e) {
+        // Shutting down
+        state.release();
+      }
+    }
+  }
+
+  private void fetch(FeedState state) {
+    try {
+      rssToKafkaJob.fetch(state.feed);
+      state.succeeded();
+    } catch (Exception e) {
+      Duration backoff = state.failed(clock.instant(), maxBackoff);
+      log.error("Error fetching feed {}, retrying in {}: {}", state.feed.name(), backoff, e.getMessage());
+    }
+  }
+
+  private static final class FeedState {
+
+    private final Feed feed;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile Instant nextFetch = Instant.MIN;
+
+    // Only touched by the fetch that holds running
+    private Instant startedAt;
+
+    private int failures;
+
+    FeedState(Feed feed) {
+      this.feed = feed;
+    }
+
+    boolean tryStart(Instant now) {
+      if (now.isBefore(nextFetch) || !running.compareAndSet(false, true)) {
+        return false;
+      }
+      startedAt = now;
+      return true;
+    }
+
+    // Rate is measured from start to start, as with fixedRate
+    void succeeded() {
+      failures = 0;
+      nextFetch = startedAt.plus(feed.fetchRate());
+      running.set(false);
+    }
+
+    Duration failed(Instant now, Duration maxBackoff) {
+      failures++;
+      Duration backoff = feed.fetchRate().multipliedBy(1L << Math.min(failures, 16));
+      if (backoff.compareTo(maxBackoff) > 0) {
+        backoff = maxBackoff.compareTo(feed.fetchRate()) > 0 ? maxBackoff : feed.fetchRate();
+      }
+      nextFetch = now.plus(backoff);
+      running.set(false);
+      return backoff;
+    }
+
+    void release() {
+      running.set(false);
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package news.producer.job;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-feed fetch and send meters, tagged with the feed name and exposed under
+ * {@code /actuator/metrics}.
+ */
+@Component
+public class FetchMetrics {
+
+  private final MeterRegistry registry;
+
+  public FetchMetrics(MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  // A not_modified fetch is a 304: no body was downloaded and nothing is parsed
+  public void recordFetch(String feed, boolean modified, long bytes) {
+    registry.counter("news.producer.fetches", "feed", feed, "outcome", modified ? "modified" : "not_modified")
+        .increment();
+    if (modified) {
+      DistributionSummary.builder("news.producer.bytes.fetched")
+          .description("Feed response bytes downloaded per fetch, before decompression")
+          .baseUnit("bytes")
+          .tag("feed", feed)
+          .register(registry)
+          .record(bytes);
+    }
+  }
+
+  public void recordParse(String feed) {
+    registry.counter("news.producer.parses", "feed", feed).increment();
+  }
+
+  // Recorded once per dedup batch that had new articles
+  public void recordSends(String feed, long elapsedNanos, long bytes, int sent, int failed) {
+    Timer.builder("news.producer.send.latency")
+        .description("Time from the first send of a batch until Kafka acknowledged all of its articles")
+        .tag("feed", feed)
+        .register(registry)
+        .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    DistributionSummary.builder("news.producer.bytes.sent")
+        .description("Article value bytes acknowledged by Kafka per batch")
+        .baseUnit("bytes")
+        .tag("feed", feed)
+        .register(registry)
+        .record(bytes);
+    registry.counter("news.producer.articles", "feed", feed, "outcome", "sent").increment(sent);
+    registry.counter("news.producer.articles", "feed", feed, "outcome", "failed").increment(failed);
+  }
+}
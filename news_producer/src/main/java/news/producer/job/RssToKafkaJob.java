@@ -1,29 +1,46 @@
 package news.producer.job;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.rometools.rome.feed.synd.SyndEntry;
-import com.rometools.rome.feed.synd.SyndFeed;
-import com.rometools.rome.io.SyndFeedInput;
-import java.io.StringReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.GZIPInputStream;
+import javax.xml.stream.XMLStreamException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import news.model.NewsArticle;
+import news.model.codec.ArticleCodec;
+import news.producer.dedup.GuidFilter;
+import news.producer.entity.FeedCache;
 import news.producer.entity.ProcessedGuid;
+import news.producer.feed.Feed;
+import news.producer.parser.ArticleId;
 import news.producer.parser.RssItemProcessor;
+import news.producer.parser.RssStreamParser;
+import news.producer.repository.FeedCacheRepository;
 import news.producer.repository.ProcessedGuidRepository;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
-import org.xml.sax.InputSource;
 
 @Component
 @RequiredArgsConstructor
@@ -31,62 +48,308 @@ import org.xml.sax.InputSource;
 public class RssToKafkaJob {
 
   private final RestTemplate restTemplate;
-  private final KafkaTemplate<String, String> kafkaTemplate;
+  private final KafkaTemplate<String, byte[]> kafkaTemplate;
   private final ProcessedGuidRepository processedGuidRepository;
+  private final FeedCacheRepository feedCacheRepository;
+  private final ArticleCodec articleCodec;
+  private final FetchMetrics fetchMetrics;
+  private final GuidFilter guidFilter;
 
-  @Value("${spring.rss.url}")
-  private String rssUrl;
+  @Value("${app.kafka.send-timeout:30s}")
+  private Duration sendTimeout = Duration.ofSeconds(30);
 
-  @Value("${spring.kafka.topic}")
-  private String kafkaTopic;
+  @Value("${app.feeds.dedup-batch-size:500}")
+  private int dedupBatchSize = 500;
 
-  @Value("${spring.rss.charset}")
-  private String charset;
+  @Value("${app.articles.id-format:hex}")
+  private ArticleId.Format idFormat = ArticleId.Format.HEX;
 
-  @Scheduled(fixedRateString ="${spring.rss.fetch-rate}", initialDelay=1000)
-  public void fetchRssAndSendKafka() {
-    log.info("Start Fetching RSS feed from URL: {}", rssUrl);
-    try {
-      ResponseEntity<byte[]> response = restTemplate.exchange(
-          rssUrl,
-          HttpMethod.GET,
-          null,
-          byte[].class
-      );
-      HttpHeaders headers = response.getHeaders();
-      MediaType contentType = headers.getContentType();
-      if (contentType != null && contentType.getCharset() != null) {
-        charset = contentType.getCharset().name();
+  @Value("${app.guids.ttl:14d}")
+  private Duration guidTtl = Duration.ofDays(14);
+
+  private Clock clock = Clock.systemUTC();
+
+  /**
+   * Fetches one feed and sends its new articles to the feed's topic. Called by
+   * {@link FeedScheduler}, which backs off when this throws; articles Kafka does not acknowledge
+   * are only logged, they are picked up again by the next fetch.
+   */
+  public void fetch(Feed feed) throws Exception {
+    log.info("Start Fetching RSS feed {} from URL: {}", feed.name(), feed.url());
+    // Validators stored for another URL under the same feed name do not apply
+    FeedCache cache = feedCacheRepository.findById(feed.name())
+        .filter(c -> feed.url().equals(c.getUrl()))
+        .orElse(null);
+    Ingested ingested = restTemplate.execute(
+        feed.url(),
+        HttpMethod.GET,
+        request -> request.getHeaders().addAll(requestHeaders(cache)),
+        response -> ingest(feed, response)
+    );
+    if (ingested == null) {
+      log.info("RSS feed {} not modified since the last fetch", feed.name());
+      return;
+    }
+    if (ingested.newArticles() > 0) {
+      log.info("Sent {} of {} new articles from {} to Kafka topic: {}", ingested.sentArticles(), ingested.newArticles(),
+          feed.name(), feed.topic());
+      if (ingested.sentArticles() < ingested.newArticles()) {
+        // Keep the old validators so the next fetch gets the full feed and resends the failed articles
+        return;
       }
-      SyndFeed rssFeed = parseFeed(response.getBody(), charset);
-      final List<SyndEntry> entries = rssFeed.getEntries();
-      final Set<String> processedGuids = new HashSet<>();
-      for (SyndEntry entry : entries) {
-        Map<String, Object> newsItem= RssItemProcessor.processRssItem(entry);
-        ObjectMapper objectMapper = new ObjectMapper();
-        String guid = (String) newsItem.get("guid");
-        if (processedGuids.contains(guid) || processedGuidRepository.existsById(guid) ) {
-          log.info("Skipping already processed item with GUID: {}", guid);
-          continue;
+    }
+    updateCache(feed, cache, ingested.headers());
+  }
+
+  /**
+   * Parses the response body as it arrives and sends the new articles of each dedup batch before
+   * reading on, recording the acknowledged ones as processed, so memory does not grow with the
+   * size of the feed and a feed that breaks off halfway keeps the articles sent before the break.
+   * Returns null when the feed was not modified.
+   */
+  private Ingested ingest(Feed feed, ClientHttpResponse response) throws IOException {
+    if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+      fetchMetrics.recordFetch(feed.name(), false, 0);
+      return null;
+    }
+    HttpHeaders headers = response.getHeaders();
+    MediaType contentType = headers.getContentType();
+    String charset = feed.charset();
+    if (contentType != null && contentType.getCharset() != null) {
+      charset = contentType.getCharset().name();
+    }
+    CountingInputStream body = new CountingInputStream(response.getBody());
+    ArticleBatch batch = new ArticleBatch(feed);
+    try (InputStream in = decode(body, headers)) {
+      RssStreamParser.parse(in, charset, entry -> {
+        if (entry.getUri() == null) {
+          log.warn("Skipping item without guid or link in feed {}: {}", feed.name(), entry.getTitle());
+          return;
         }
-        kafkaTemplate.send(kafkaTopic, guid, objectMapper.writeValueAsString(newsItem));
-        processedGuids.add(guid);
+        batch.add(RssItemProcessor.processRssItem(entry, idFormat));
+      });
+      batch.flush();
+    } catch (XMLStreamException e) {
+      throw new IOException("Malformed RSS feed " + feed.name() + ": " + e.getMessage(), e);
+    } finally {
+      fetchMetrics.recordFetch(feed.name(), true, body.count());
+    }
+    fetchMetrics.recordParse(feed.name());
+    return new Ingested(headers, batch.newArticles, batch.sentArticles);
+  }
+
+  private static HttpHeaders requestHeaders(FeedCache cache) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+    if (cache != null && cache.getEtag() != null) {
+      headers.set(HttpHeaders.IF_NONE_MATCH, cache.getEtag());
+    }
+    if (cache != null && cache.getLastModified() != null) {
+      headers.set(HttpHeaders.IF_MODIFIED_SINCE, cache.getLastModified());
+    }
+    return headers;
+  }
+
+  // The HTTP client leaves the body as sent, gzip included
+  private static InputStream decode(InputStream body, HttpHeaders headers) throws IOException {
+    if (!"gzip".equalsIgnoreCase(headers.getFirst(HttpHeaders.CONTENT_ENCODING))) {
+      return body;
+    }
+    return new GZIPInputStream(body);
+  }
+
+  // The validators are stored as received, servers compare them verbatim
+  private void updateCache(Feed feed, FeedCache cache, HttpHeaders headers) {
+    String etag = headers.getETag();
+    String lastModified = headers.getFirst(HttpHeaders.LAST_MODIFIED);
+    if (etag == null && lastModified == null) {
+      if (cache != null) {
+        feedCacheRepository.deleteById(feed.name());
       }
-      processedGuidRepository.saveAll(processedGuids.stream()
-          .map(guid -> new ProcessedGuid(guid))
-          .toList());
-      log.info("Successfully sent RSS feed to Kafka topic: {}", kafkaTopic);
+      return;
+    }
+    FeedCache updated = new FeedCache(feed.name(), feed.url(), etag, lastModified);
+    if (!updated.equals(cache)) {
+      feedCacheRepository.save(updated);
+    }
+  }
+
+  // The producer batches records until linger.ms or batch.size, a failed send only costs its own entry
+  private PendingSend send(String topic, String guid, byte[] value) {
+    CompletableFuture<SendResult<String, byte[]>> future;
+    try {
+      future = kafkaTemplate.send(topic, guid, value);
+    } catch (RuntimeException e) {
+      future = CompletableFuture.failedFuture(e);
     }
-    catch (Exception e) {
-      log.error("Error fetching RSS feed or sending to Kafka: {}", e.getMessage());
+    return new PendingSend(guid, value.length, future);
+  }
+
+  /**
+   * Waits up to {@code app.kafka.send-timeout} for the sends of a batch. The producer is shared by
+   * every feed, so it is not flushed: that would cut short the linger of the other fetches' sends.
+   * Returns the GUIDs Kafka acknowledged; the others are not recorded as processed, so the next
+   * fetch sends them again.
+   */
+  private List<String> awaitSends(Feed feed, List<PendingSend> sends, long sendStart) {
+    CompletableFuture<?>[] futures = sends.stream().map(PendingSend::future).toArray(CompletableFuture[]::new);
+    try {
+      CompletableFuture.allOf(futures).get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (ExecutionException e) {
+      // Failed sends are sorted out below
+    } catch (TimeoutException e) {
+      log.warn("Kafka did not acknowledge all articles within {}", sendTimeout);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    List<String> sentGuids = new ArrayList<>(sends.size());
+    long bytes = 0;
+    for (PendingSend send : sends) {
+      if (!send.future().isDone()) {
+        continue;
+      }
+      try {
+        send.future().join();
+        sentGuids.add(send.guid());
+        bytes += send.bytes();
+      } catch (CompletionException | CancellationException e) {
+        log.warn("Failed to send article {}: {}", send.guid(), e.getMessage());
+      }
     }
+    fetchMetrics.recordSends(feed.name(), System.nanoTime() - sendStart, bytes, sentGuids.size(), sends.size() - sentGuids.size());
+    return sentGuids;
   }
 
-  protected SyndFeed parseFeed(byte[] content, String charset) throws Exception {
-    String rssFeed = new String(content, charset);
-    final SyndFeedInput input = new SyndFeedInput();
-    final InputSource source = new InputSource(new StringReader(rssFeed));
-    return input.build(source);
+  // Records the acknowledged articles of a batch as processed, returns how many there were
+  private int recordSends(Feed feed, List<PendingSend> sends, long sendStart) {
+    List<String> sentGuids = awaitSends(feed, sends, sendStart);
+    Instant expireAt = clock.instant().plus(guidTtl);
+    processedGuidRepository.saveAll(sentGuids.stream()
+        .map(guid -> ProcessedGuid.of(guid, expireAt))
+        .toList());
+    guidFilter.put(sentGuids.stream().map(ArticleId::toHex).toList());
+    return sentGuids.size();
   }
 
+  private record PendingSend(String guid, int bytes, CompletableFuture<SendResult<String, byte[]>> future) {
+  }
+
+  /**
+   * Collects the parsed articles of one fetch and checks them against the {@link GuidFilter}, then
+   * MongoDB, in batches of {@code app.feeds.dedup-batch-size}, at most one query per batch. The new
+   * articles of a batch are sent and their acknowledgements recorded before the next batch is
+   * read, so a feed up to that size costs a single round trip and only one batch is ever held.
+   */
+  private final class ArticleBatch {
+
+    private final Feed feed;
+    // Per batch, a GUID repeated in a later batch is caught by the lookup once the first is recorded
+    private final Set<String> seen = new HashSet<>();
+    private final List<NewsArticle> pending = new ArrayList<>();
+    private int newArticles;
+    private int sentArticles;
+
+    ArticleBatch(Feed feed) {
+      this.feed = feed;
+    }
+
+    void add(NewsArticle article) throws IOException {
+      if (!seen.add(article.getId())) {
+        log.info("Skipping duplicate item with GUID: {}", article.getId());
+        return;
+      }
+      pending.add(article);
+      if (pending.size() >= dedupBatchSize) {
+        flush();
+      }
+    }
+
+    void flush() throws IOException {
+      if (pending.isEmpty()) {
+        return;
+      }
+      List<PendingSend> sends = new ArrayList<>();
+      long sendStart = 0;
+      try {
+        // Only GUIDs the filter cannot rule out are looked up. Both work on hex ids, whatever
+        // app.articles.id-format the articles are sent with
+        List<String> hexIds = pending.stream().map(article -> ArticleId.toHex(article.getId())).toList();
+        List<String> candidates = guidFilter.mightContain(hexIds);
+        Set<String> processed = new HashSet<>();
+        if (!candidates.isEmpty()) {
+          // Items a feed still lists must outlive the TTL, they are renewed at most every half TTL
+          Instant now = clock.instant();
+          Instant renewBefore = now.plus(guidTtl.dividedBy(2));
+          List<byte[]> expiring = new ArrayList<>();
+          for (ProcessedGuid processedGuid : processedGuidRepository.findAllById(
+              candidates.stream().map(ProcessedGuid::key).toList())) {
+            processed.add(processedGuid.articleId());
+            if (processedGuid.getExpireAt() == null || processedGuid.getExpireAt().isBefore(renewBefore)) {
+              expiring.add(processedGuid.getGuid());
+            }
+          }
+          if (!expiring.isEmpty()) {
+            processedGuidRepository.updateExpireAt(expiring, now.plus(guidTtl));
+          }
+          guidFilter.lookedUp(candidates, processed);
+        }
+        for (int i = 0; i < pending.size(); i++) {
+          NewsArticle article = pending.get(i);
+          String guid = article.getId();
+          if (processed.contains(hexIds.get(i))) {
+            log.info("Skipping already processed item with GUID: {}", guid);
+            continue;
+          }
+          if (sends.isEmpty()) {
+            sendStart = System.nanoTime();
+          }
+          sends.add(send(feed.topic(), guid, articleCodec.encode(article)));
+        }
+      } finally {
+        pending.clear();
+        seen.clear();
+        // Even if the batch broke off, what was handed to the producer is awaited and recorded
+        if (!sends.isEmpty()) {
+          newArticles += sends.size();
+          sentArticles += recordSends(feed, sends, sendStart);
+        }
+      }
+    }
+  }
+
+  private record Ingested(HttpHeaders headers, int newArticles, int sentArticles) {
+  }
+
+  // Counts the bytes read off the wire, before gzip decoding
+  private static final class CountingInputStream extends FilterInputStream {
+
+    private long count;
+
+    CountingInputStream(InputStream in) {
+      super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+      if (b >= 0) {
+        count++;
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int n = super.read(b, off, len);
+      if (n > 0) {
+        count += n;
+      }
+      return n;
+    }
+
+    long count() {
+      return count;
+    }
+  }
 }
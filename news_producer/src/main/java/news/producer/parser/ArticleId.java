@@ -0,0 +1,105 @@
+package news.producer.parser;
+
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Article ids: the SHA-256 of the item's uri, written as 64 hex characters or, shorter, as 43
+ * unpadded base64url characters. Both forms of an id decode to the same 32 bytes, which is how
+ * processed GUIDs are stored, so switching {@code app.articles.id-format} does not resend
+ * articles already processed.
+ */
+public final class ArticleId {
+
+  public enum Format {
+    HEX,
+    BASE64URL
+  }
+
+  private static final int DIGEST_LENGTH = 32;
+
+  private static final byte[] HEX_PAIRS = new byte[512];
+
+  static {
+    byte[] digits = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    for (int i = 0; i < 256; i++) {
+      HEX_PAIRS[2 * i] = digits[i >>> 4];
+      HEX_PAIRS[2 * i + 1] = digits[i & 0xf];
+    }
+  }
+
+  private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+
+  // MessageDigest.getInstance looks the provider up on every call, one digest per thread is reused
+  private static final ThreadLocal<Hasher> HASHER = ThreadLocal.withInitial(Hasher::new);
+
+  private ArticleId() {
+  }
+
+  public static String of(String uri, Format format) {
+    Hasher hasher = HASHER.get();
+    byte[] digest = hasher.digest(uri);
+    return format == Format.HEX ? hasher.hex(digest) : BASE64URL.encodeToString(digest);
+  }
+
+  /**
+   * Returns the 32 bytes of an id in either format.
+   *
+   * @throws IllegalArgumentException if the id is in neither format
+   */
+  public static byte[] decode(String id) {
+    if (id.length() == 2 * DIGEST_LENGTH) {
+      return HexFormat.of().parseHex(id);
+    }
+    if (id.length() == 43) {
+      return Base64.getUrlDecoder().decode(id);
+    }
+    throw new IllegalArgumentException("Not an article id: " + id);
+  }
+
+  // The hex form of an id in either format, as the GUID filter keys it
+  public static String toHex(String id) {
+    return id.length() == 2 * DIGEST_LENGTH ? id : HASHER.get().hex(decode(id));
+  }
+
+  private static final class Hasher {
+
+    private final MessageDigest sha256;
+
+    private final byte[] digest = new byte[DIGEST_LENGTH];
+
+    private final byte[] hex = new byte[2 * DIGEST_LENGTH];
+
+    Hasher() {
+      try {
+        sha256 = MessageDigest.getInstance("SHA-256");
+      } catch (NoSuchAlgorithmException e) {
+        throw new IllegalStateException("SHA-256 is required of every Java platform", e);
+      }
+    }
+
+    // Valid until the next call on this thread
+    byte[] digest(String uri) {
+      sha256.update(uri.getBytes(StandardCharsets.UTF_8));
+      try {
+        sha256.digest(digest, 0, DIGEST_LENGTH);
+      } catch (DigestException e) {
+        throw new IllegalStateException(e);
+      }
+      return digest;
+    }
+
+    String hex(byte[] bytes) {
+      for (int i = 0; i < bytes.length; i++) {
+        int pair = (bytes[i] & 0xff) << 1;
+        hex[2 * i] = HEX_PAIRS[pair];
+        hex[2 * i + 1] = HEX_PAIRS[pair + 1];
+      }
+      return new String(hex, 0, 2 * bytes.length, StandardCharsets.ISO_8859_1);
+    }
+  }
+}
@@ -7,31 +7,36 @@ import com.rometools.rome.feed.module.DCModule;
 import com.rometools.modules.mediarss.MediaEntryModule;
 import com.rometools.rome.feed.synd.SyndCategory;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.util.HashMap;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
-import java.util.Map;
+import news.model.Media;
+import news.model.NewsArticle;
 
 public class RssItemProcessor {
-  public static Map<String, Object> processRssItem(SyndEntry entry) throws Exception {
-    Map<String, Object> article = new HashMap<>();
-    article.put("title", entry.getTitle());
-    article.put("link", entry.getLink());
-    article.put("guid", convertToId(entry.getUri()));
-    article.put("description", entry.getDescription() != null ? entry.getDescription().getValue() : null);
+  public static NewsArticle processRssItem(SyndEntry entry) {
+    return processRssItem(entry, ArticleId.Format.HEX);
+  }
+
+  public static NewsArticle processRssItem(SyndEntry entry, ArticleId.Format idFormat) {
+    NewsArticle article = new NewsArticle();
+    article.setTitle(entry.getTitle());
+    article.setLink(entry.getLink());
+    article.setId(ArticleId.of(entry.getUri(), idFormat));
+    article.setContent(entry.getDescription() != null ? entry.getDescription().getValue() : null);
     Module dcModule = entry.getModule(DCModule.URI);
     if (dcModule instanceof DCModule) {
       DCModule creatorModule = (DCModule) dcModule;
-      article.put("creator", creatorModule.getCreator());
+      article.setCreator(creatorModule.getCreator());
+    }
+    if (entry.getPublishedDate() != null) {
+      article.setPublishedAt(LocalDateTime.ofInstant(entry.getPublishedDate().toInstant(), ZoneId.systemDefault()));
     }
-    article.put("pubDate", entry.getPublishedDate());
     List<SyndCategory> categories = entry.getCategories();
     if (categories != null) {
-      article.put("categories", categories.stream()
+      article.setCategories(categories.stream()
           .map(SyndCategory::getName)
-          .toArray(String[]::new));
+          .toList());
     }
 
     Module mediaModule = entry.getModule(MediaEntryModule.URI);
@@ -40,11 +45,11 @@ public class RssItemProcessor {
       MediaContent[] mediaContents = mediaEntry.getMediaContents();
       if (mediaContents != null && mediaContents.length > 0) {
         MediaContent content = mediaContents[0];
-        Map<String, Object> media = new HashMap<>();
-        media.put("url", content.getReference() != null ? content.getReference().toString() : null);
-        media.put("width", content.getWidth());
-        media.put("height", content.getHeight());
-        article.put("media", media);
+        Media media = new Media();
+        media.setUrl(content.getReference() != null ? content.getReference().toString() : null);
+        media.setWidth(content.getWidth() != null ? content.getWidth() : 0);
+        media.setHeight(content.getHeight() != null ? content.getHeight() : 0);
+        article.setMedia(media);
       }
     }
 
@@ -57,20 +62,7 @@ public class RssItemProcessor {
    * @param uri the uri to convert
    * @return the unique ID as a hexadecimal string
    */
-
   public static String convertToId(String uri) {
-    try {
-      MessageDigest digest = MessageDigest.getInstance("SHA-256");
-      byte[] hashBytes = digest.digest(uri.getBytes(StandardCharsets.UTF_8));
-      StringBuilder hexString = new StringBuilder();
-      for (byte b : hashBytes) {
-        hexString.append(String.format("%02x", b));
-      }
-
-      return hexString.toString();
-    } catch (NoSuchAlgorithmException e) {
-      throw new RuntimeException("Error generating hash", e);
-    }
+    return ArticleId.of(uri, ArticleId.Format.HEX);
   }
-
 }
@@ -0,0 +1,276 @@
+package news.producer.parser;
+
+import com.rometools.modules.mediarss.MediaEntryModuleImpl;
+import com.rometools.modules.mediarss.types.MediaContent;
+import com.rometools.modules.mediarss.types.UrlReference;
+import com.rometools.rome.feed.synd.SyndCategory;
+import com.rometools.rome.feed.synd.SyndCategoryImpl;
+import com.rometools.rome.feed.synd.SyndContentImpl;
+import com.rometools.rome.feed.synd.SyndEntry;
+import com.rometools.rome.feed.synd.SyndEntryImpl;
+import com.rometools.rome.io.impl.DateParser;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads the entries of an RSS 0.9x/1.0/2.0 or Atom feed from a stream, one at a time. Only the
+ * current entry is held in memory, unlike ROME's {@code SyndFeedInput}, which builds the whole
+ * document first. Entries carry the fields {@link RssItemProcessor} maps, set the way ROME sets
+ * them: the uri is the RSS guid, or the link when there is none, or the Atom id.
+ */
+public class RssStreamParser {
+
+  private static final String ATOM_NS = "http://www.w3.org/2005/Atom";
+  private static final String DC_NS = "http://purl.org/dc/elements/1.1/";
+  private static final String MEDIA_NS = "http://search.yahoo.com/mrss/";
+  private static final String RSS_090_NS = "http://my.netscape.com/rdf/simple/0.9/";
+  private static final String RSS_10_NS = "http://purl.org/rss/1.0/";
+
+  private static final XMLInputFactory FACTORY = XMLInputFactory.newFactory();
+
+  static {
+    // Feeds are untrusted, never resolve DTDs or external entities
+    FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    FACTORY.setProperty(XMLInputFactory.IS_COALESCING, true);
+  }
+
+  @FunctionalInterface
+  public interface EntryHandler {
+    void accept(SyndEntry entry) throws IOException;
+  }
+
+  /**
+   * Passes each entry of the feed to the handler as soon as its closing tag is read.
+   *
+   * @param in      the feed document
+   * @param charset the charset to decode the document with
+   * @param handler called once per entry, in document order
+   */
+  public static void parse(InputStream in, String charset, EntryHandler handler)
+      throws XMLStreamException, IOException {
+    XMLStreamReader reader = FACTORY.createXMLStreamReader(in, charset);
+    try {
+      while (reader.hasNext()) {
+        if (reader.next() == XMLStreamConstants.START_ELEMENT && isEntry(reader)) {
+          handler.accept(readEntry(reader));
+        }
+      }
+    } finally {
+      reader.close();
+    }
+  }
+
+  private static boolean isEntry(XMLStreamReader reader) {
+    String name = reader.getLocalName();
+    return ("item".equals(name) && isRss(reader)) || ("entry".equals(name) && isNamespace(reader, ATOM_NS));
+  }
+
+  // RSS 0.91/0.92/2.0 elements have no namespace, RSS 0.90 and 1.0 elements have their own
+  private static boolean isRss(XMLStreamReader reader) {
+    String namespace = reader.getNamespaceURI();
+    return namespace == null || namespace.isEmpty() || RSS_090_NS.equals(namespace) || RSS_10_NS.equals(namespace);
+  }
+
+  // Reads up to the end of the entry element the reader is on
+  private static SyndEntry readEntry(XMLStreamReader reader) throws XMLStreamException {
+    boolean atom = isNamespace(reader, ATOM_NS);
+    SyndEntryImpl entry = new SyndEntryImpl();
+    List<SyndCategory> categories = new ArrayList<>();
+    String guid = null;
+    String link = null;
+    String creator = null;
+    String author = null;
+    MediaContent media = null;
+    int depth = 0;
+    while (reader.hasNext()) {
+      int event = reader.next();
+      if (event == XMLStreamConstants.END_ELEMENT) {
+        if (depth-- == 0) {
+          break;
+        }
+        continue;
+      }
+      if (event != XMLStreamConstants.START_ELEMENT) {
+        continue;
+      }
+      String name = reader.getLocalName();
+      if (isNamespace(reader, MEDIA_NS)) {
+        // media:content may sit inside a media:group, the first one is kept
+        if ("content".equals(name) && media == null) {
+          media = readMedia(reader);
+        }
+        depth++;
+        continue;
+      }
+      if (depth > 0) {
+        depth++;
+        continue;
+      }
+      if (isNamespace(reader, DC_NS)) {
+        switch (name) {
+          case "creator" -> creator = readText(reader);
+          case "date" -> entry.setPublishedDate(DateParser.parseDate(readText(reader), Locale.US));
+          default -> skip(reader);
+        }
+      } else if (atom ? !isNamespace(reader, ATOM_NS) : !isRss(reader)) {
+        // Extensions such as itunes:author or atom:link reuse the names of the fields read below
+        skip(reader);
+      } else if (atom) {
+        switch (name) {
+          case "id" -> guid = readText(reader);
+          case "title" -> entry.setTitle(readText(reader));
+          case "link" -> {
+            String rel = reader.getAttributeValue(null, "rel");
+            if (link == null && (rel == null || "alternate".equals(rel))) {
+              link = reader.getAttributeValue(null, "href");
+            }
+            skip(reader);
+          }
+          case "summary" -> entry.setDescription(content(readText(reader)));
+          case "content" -> {
+            String content = readText(reader);
+            if (entry.getDescription() == null) {
+              entry.setDescription(content(content));
+            }
+          }
+          case "published" -> entry.setPublishedDate(DateParser.parseDate(readText(reader), Locale.US));
+          case "updated" -> {
+            String updated = readText(reader);
+            if (entry.getPublishedDate() == null) {
+              entry.setPublishedDate(DateParser.parseDate(updated, Locale.US));
+            }
+          }
+          case "author" -> author = readAtomAuthor(reader);
+          case "category" -> {
+            categories.add(category(reader.getAttributeValue(null, "term")));
+            skip(reader);
+          }
+          default -> skip(reader);
+        }
+      } else {
+        switch (name) {
+          case "guid" -> guid = readText(reader);
+          case "title" -> entry.setTitle(readText(reader));
+          case "link" -> link = readText(reader);
+          case "description" -> entry.setDescription(content(readText(reader)));
+          case "pubDate" -> entry.setPublishedDate(DateParser.parseDate(readText(reader), Locale.US));
+          case "author" -> author = readText(reader);
+          case "category" -> categories.add(category(readText(reader)));
+          default -> skip(reader);
+        }
+      }
+    }
+
+    entry.setLink(link);
+    entry.setUri(guid != null ? guid : link);
+    entry.setAuthor(creator != null ? creator : author);
+    entry.setCategories(categories);
+    if (media != null) {
+      MediaEntryModuleImpl module = new MediaEntryModuleImpl();
+      module.setMediaContents(new MediaContent[] {media});
+      entry.getModules().add(module);
+    }
+    return entry;
+  }
+
+  private static MediaContent readMedia(XMLStreamReader reader) {
+    String url = reader.getAttributeValue(null, "url");
+    if (url == null) {
+      return null;
+    }
+    try {
+      MediaContent media = new MediaContent(new UrlReference(url.trim()));
+      media.setWidth(parseInt(reader.getAttributeValue(null, "width")));
+      media.setHeight(parseInt(reader.getAttributeValue(null, "height")));
+      return media;
+    } catch (URISyntaxException e) {
+      return null;
+    }
+  }
+
+  private static String readAtomAuthor(XMLStreamReader reader) throws XMLStreamException {
+    String name = null;
+    int depth = 0;
+    while (reader.hasNext()) {
+      int event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        if (depth == 0 && "name".equals(reader.getLocalName())) {
+          name = readText(reader);
+        } else {
+          depth++;
+        }
+      } else if (event == XMLStreamConstants.END_ELEMENT && depth-- == 0) {
+        break;
+      }
+    }
+    return name;
+  }
+
+  // The text of the current element and its descendants, e.g. Atom xhtml content
+  private static String readText(XMLStreamReader reader) throws XMLStreamException {
+    StringBuilder text = new StringBuilder();
+    int depth = 0;
+    while (reader.hasNext()) {
+      int event = reader.next();
+      switch (event) {
+        case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE ->
+            text.append(reader.getText());
+        case XMLStreamConstants.START_ELEMENT -> depth++;
+        case XMLStreamConstants.END_ELEMENT -> {
+          if (depth-- == 0) {
+            return text.toString().trim();
+          }
+        }
+        default -> {
+        }
+      }
+    }
+    return text.toString().trim();
+  }
+
+  private static void skip(XMLStreamReader reader) throws XMLStreamException {
+    int depth = 0;
+    while (reader.hasNext()) {
+      int event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        depth++;
+      } else if (event == XMLStreamConstants.END_ELEMENT && depth-- == 0) {
+        return;
+      }
+    }
+  }
+
+  private static boolean isNamespace(XMLStreamReader reader, String namespace) {
+    return namespace.equals(reader.getNamespaceURI());
+  }
+
+  private static SyndContentImpl content(String value) {
+    SyndContentImpl content = new SyndContentImpl();
+    content.setValue(value);
+    return content;
+  }
+
+  private static SyndCategory category(String name) {
+    SyndCategoryImpl category = new SyndCategoryImpl();
+    category.setName(name);
+    return category;
+  }
+
+  private static Integer parseInt(String value) {
+    try {
+      return value != null ? Integer.valueOf(value.trim()) : null;
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,7 @@
+package news.producer.repository;
+
+import news.producer.entity.FeedCache;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface FeedCacheRepository extends MongoRepository<FeedCache, String> {
+}
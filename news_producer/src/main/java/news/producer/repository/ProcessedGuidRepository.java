@@ -2,7 +2,19 @@ package news.producer.repository;
 
 import news.producer.entity.ProcessedGuid;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 
-public interface ProcessedGuidRepository extends MongoRepository<ProcessedGuid, String> {
-    boolean existsByGuid(String guid);
+import java.time.Instant;
+import java.util.Collection;
+import java.util.stream.Stream;
+
+public interface ProcessedGuidRepository extends MongoRepository<ProcessedGuid, byte[]> {
+
+    // Read with a cursor, the collection may not fit in memory
+    Stream<ProcessedGuid> streamAllBy();
+
+    @Query("{ '_id' : { '$in' : ?0 } }")
+    @Update("{ '$set' : { 'expireAt' : ?1 } }")
+    long updateExpireAt(Collection<byte[]> guids, Instant expireAt);
 }
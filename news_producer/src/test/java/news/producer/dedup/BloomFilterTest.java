@@ -0,0 +1,33 @@
+package news.producer.dedup;
+
+import org.junit.jupiter.api.Test;
+
+import static news.producer.parser.RssItemProcessor.convertToId;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BloomFilterTest {
+
+  @Test
+  void shouldKeepEveryPutValueAndStayNearTheTargetRate() {
+    // Given
+    BloomFilter filter = new BloomFilter(10_000, 0.01);
+    for (int i = 0; i < 10_000; i++) {
+      filter.put(convertToId("https://example.com/" + i));
+    }
+
+    // When
+    int falsePositives = 0;
+    for (int i = 10_000; i < 60_000; i++) {
+      if (filter.mightContain(convertToId("https://example.com/" + i))) {
+        falsePositives++;
+      }
+    }
+
+    // Then
+    for (int i = 0; i < 10_000; i++) {
+      assertTrue(filter.mightContain(convertToId("https://example.com/" + i)));
+    }
+    assertTrue(falsePositives < 1_000, "false positives: " + falsePositives);
+    assertTrue(filter.expectedFalsePositiveRate() < 0.02);
+  }
+}
@@ -0,0 +1,111 @@
+package news.producer.dedup;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import news.producer.config.GuidFilterProperties;
+import news.producer.entity.ProcessedGuid;
+import news.producer.repository.ProcessedGuidRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static news.producer.parser.RssItemProcessor.convertToId;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class GuidFilterTest {
+
+  private static final String KNOWN1 = convertToId("known1");
+  private static final String KNOWN2 = convertToId("known2");
+  private static final Instant START = Instant.parse("2024-05-01T00:00:00Z");
+
+  @Mock
+  private ProcessedGuidRepository processedGuidRepository;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private GuidFilter guidFilter() {
+    GuidFilter filter = new GuidFilter(new GuidFilterProperties(true, 1_000, 0.001, Duration.ofHours(24)),
+        processedGuidRepository, meterRegistry);
+    setTime(filter, START);
+    return filter;
+  }
+
+  private static void setTime(GuidFilter filter, Instant instant) {
+    ReflectionTestUtils.setField(filter, "clock", Clock.fixed(instant, ZoneOffset.UTC));
+  }
+
+  @Test
+  void shouldOnlyPassProcessedGuidsOnceLoaded() {
+    // Given
+    when(processedGuidRepository.count()).thenReturn(2L);
+    when(processedGuidRepository.streamAllBy())
+        .thenReturn(Stream.of(ProcessedGuid.of(KNOWN1, START), ProcessedGuid.of(KNOWN2, START)));
+    GuidFilter filter = guidFilter();
+
+    // When
+    List<String> candidates = filter.mightContain(List.of(KNOWN1, convertToId("new1"), KNOWN2, convertToId("new2")));
+
+    // Then
+    assertEquals(List.of(KNOWN1, KNOWN2), candidates);
+    assertEquals(2, meterRegistry.get("news.producer.guid.filter.lookups").tag("result", "skipped").counter().count());
+    assertTrue(meterRegistry.get("news.producer.guid.filter.memory").gauge().value() > 0);
+    assertTrue(meterRegistry.get("news.producer.guid.filter.false.positive.rate").gauge().value() < 0.001);
+  }
+
+  @Test
+  void shouldPassEveryGuidUntilLoadSucceeds() {
+    // Given
+    when(processedGuidRepository.count())
+        .thenThrow(new DataAccessResourceFailureException("mongo down"))
+        .thenReturn(0L);
+    when(processedGuidRepository.streamAllBy()).thenReturn(Stream.empty());
+    GuidFilter filter = guidFilter();
+
+    // When
+    List<String> whileDown = filter.mightContain(List.of("a", "b"));
+    List<String> afterRecovery = filter.mightContain(List.of("a", "b"));
+
+    // Then
+    assertEquals(List.of("a", "b"), whileDown);
+    assertEquals(List.of(), afterRecovery);
+    verify(processedGuidRepository, times(2)).count();
+  }
+
+  @Test
+  void shouldForgetGuidsNotSeenForTwoWindows() {
+    // Given
+    when(processedGuidRepository.count()).thenReturn(0L);
+    when(processedGuidRepository.streamAllBy()).thenReturn(Stream.empty());
+    GuidFilter filter = guidFilter();
+    filter.mightContain(List.of());
+    filter.put(List.of("listed", "dropped"));
+
+    // When
+    setTime(filter, START.plus(Duration.ofHours(25)));
+    List<String> firstWindow = filter.mightContain(List.of("listed", "dropped"));
+    // Only the GUID the feed still lists is confirmed
+    filter.lookedUp(firstWindow, List.of("listed"));
+    setTime(filter, START.plus(Duration.ofHours(50)));
+    List<String> secondWindow = filter.mightContain(List.of("listed", "dropped"));
+
+    // Then
+    assertEquals(List.of("listed", "dropped"), firstWindow);
+    assertEquals(List.of("listed"), secondWindow);
+    assertEquals(1, meterRegistry.get("news.producer.guid.filter.lookups").tag("result", "false_positive").counter()
+        .count());
+  }
+}
@@ -0,0 +1,107 @@
+package news.producer.job;
+
+import news.producer.config.FeedProperties;
+import news.producer.feed.Feed;
+import news.producer.feed.FeedRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class FeedSchedulerTest {
+
+  private static final Instant START = Instant.parse("2024-05-01T12:00:00Z");
+  private static final Feed TECH = new Feed("tech", "https://example.com/tech", "news", "UTF-8", Duration.ofMinutes(1));
+  private static final Feed WORLD = new Feed("world", "https://example.com/world", "news", "UTF-8", Duration.ofMinutes(5));
+
+  @Mock
+  private FeedRegistry feedRegistry;
+
+  @Mock
+  private RssToKafkaJob rssToKafkaJob;
+
+  private FeedScheduler scheduler(Duration maxBackoff) {
+    when(feedRegistry.feeds()).thenReturn(List.of(TECH, WORLD));
+    FeedProperties properties = new FeedProperties(List.of(), 2, maxBackoff, Duration.ofSeconds(5),
+        Duration.ofSeconds(30));
+    // Runs each fetch on the dispatching thread
+    return new FeedScheduler(feedRegistry, rssToKafkaJob, Runnable::run, properties);
+  }
+
+  private void setTime(FeedScheduler scheduler, Instant instant) {
+    ReflectionTestUtils.setField(scheduler, "clock", Clock.fixed(instant, ZoneOffset.UTC));
+  }
+
+  @Test
+  void shouldFetchEachFeedAtItsOwnRate() throws Exception {
+    // Given
+    FeedScheduler scheduler = scheduler(Duration.ofMinutes(30));
+
+    // When
+    setTime(scheduler, START);
+    scheduler.dispatch();
+    setTime(scheduler, START.plusSeconds(30));
+    scheduler.dispatch();
+    setTime(scheduler, START.plusSeconds(60));
+    scheduler.dispatch();
+
+    // Then
+    verify(rssToKafkaJob, times(2)).fetch(TECH);
+    verify(rssToKafkaJob, times(1)).fetch(WORLD);
+  }
+
+  @Test
+  void shouldBackOffFailingFeedWithoutDelayingOthers() throws Exception {
+    // Given
+    FeedScheduler scheduler = scheduler(Duration.ofMinutes(30));
+    doThrow(new IllegalStateException("feed down")).when(rssToKafkaJob).fetch(TECH);
+
+    // When
+    setTime(scheduler, START);
+    scheduler.dispatch();
+    // First failure waits twice the fetch rate
+    setTime(scheduler, START.plusSeconds(60));
+    scheduler.dispatch();
+    setTime(scheduler, START.plusSeconds(120));
+    scheduler.dispatch();
+    setTime(scheduler, START.plusSeconds(300));
+    scheduler.dispatch();
+
+    // Then
+    verify(rssToKafkaJob, times(2)).fetch(TECH);
+    verify(rssToKafkaJob, times(2)).fetch(WORLD);
+  }
+
+  @Test
+  void shouldCapBackoffAtMaxBackoff() throws Exception {
+    // Given
+    FeedScheduler scheduler = scheduler(Duration.ofMinutes(3));
+    doThrow(new IllegalStateException("feed down")).when(rssToKafkaJob).fetch(TECH);
+
+    // When
+    Instant now = START;
+    setTime(scheduler, now);
+    scheduler.dispatch();
+    for (int i = 0; i < 3; i++) {
+      now = now.plus(Duration.ofMinutes(3));
+      setTime(scheduler, now);
+      scheduler.dispatch();
+    }
+
+    // Then
+    verify(rssToKafkaJob, times(4)).fetch(TECH);
+  }
+}
@@ -0,0 +1,172 @@
+package news.producer.job;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rometools.modules.mediarss.MediaEntryModule;
+import com.rometools.modules.mediarss.types.MediaContent;
+import com.rometools.rome.feed.module.DCModule;
+import com.rometools.rome.feed.module.Module;
+import com.rometools.rome.feed.synd.SyndCategory;
+import com.rometools.rome.feed.synd.SyndEntry;
+import news.model.codec.ArticleCodec;
+import news.producer.parser.ArticleId;
+import news.producer.parser.RssItemProcessor;
+import news.producer.parser.RssStreamParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-item cost of turning a parsed feed entry into the Kafka record value: the former loop, with
+ * a {@code HashMap} per entry, a new {@code ObjectMapper} per entry and the String serializer's
+ * UTF-8 copy, against {@link RssItemProcessor} and the shared {@link ArticleCodec} in both formats.
+ * Both map the same entries, so feed parsing is left out; {@link news.producer.parser.ArticleIdBenchmark}
+ * isolates the id part. The GC profiler reports the bytes allocated per item:
+ *
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) news.producer.job.ItemMappingBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemMappingBenchmark {
+
+  private static final int ITEMS = 50;
+
+  @Param({"JSON", "SMILE"})
+  private ArticleCodec.Format format;
+
+  private ArticleCodec codec;
+
+  private List<SyndEntry> entries;
+
+  @Setup
+  public void setUp() throws Exception {
+    codec = new ArticleCodec(format);
+    entries = new ArrayList<>(ITEMS);
+    RssStreamParser.parse(new ByteArrayInputStream(feed().getBytes(StandardCharsets.UTF_8)), "UTF-8", entries::add);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ITEMS)
+  public void formerLoop(Blackhole blackhole) throws Exception {
+    for (SyndEntry entry : entries) {
+      Map<String, Object> newsItem = formerProcessRssItem(entry);
+      ObjectMapper objectMapper = new ObjectMapper();
+      blackhole.consume(objectMapper.writeValueAsString(newsItem).getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ITEMS)
+  public void typedLoop(Blackhole blackhole) throws Exception {
+    for (SyndEntry entry : entries) {
+      blackhole.consume(codec.encode(RssItemProcessor.processRssItem(entry, ArticleId.Format.HEX)));
+    }
+  }
+
+  // RssItemProcessor.processRssItem before the typed article
+  private static Map<String, Object> formerProcessRssItem(SyndEntry entry) throws Exception {
+    Map<String, Object> article = new HashMap<>();
+    article.put("title", entry.getTitle());
+    article.put("link", entry.getLink());
+    article.put("guid", formerConvertToId(entry.getUri()));
+    article.put("description", entry.getDescription() != null ? entry.getDescription().getValue() : null);
+    Module dcModule = entry.getModule(DCModule.URI);
+    if (dcModule instanceof DCModule creatorModule) {
+      article.put("creator", creatorModule.getCreator());
+    }
+    article.put("pubDate", entry.getPublishedDate());
+    List<SyndCategory> categories = entry.getCategories();
+    if (categories != null) {
+      article.put("categories", categories.stream()
+          .map(SyndCategory::getName)
+          .toArray(String[]::new));
+    }
+    Module mediaModule = entry.getModule(MediaEntryModule.URI);
+    if (mediaModule instanceof MediaEntryModule mediaEntry) {
+      MediaContent[] mediaContents = mediaEntry.getMediaContents();
+      if (mediaContents != null && mediaContents.length > 0) {
+        MediaContent content = mediaContents[0];
+        Map<String, Object> media = new HashMap<>();
+        media.put("url", content.getReference() != null ? content.getReference().toString() : null);
+        media.put("width", content.getWidth());
+        media.put("height", content.getHeight());
+        article.put("media", media);
+      }
+    }
+    return article;
+  }
+
+  private static String formerConvertToId(String uri) throws Exception {
+    MessageDigest digest = MessageDigest.getInstance("SHA-256");
+    byte[] hashBytes = digest.digest(uri.getBytes(StandardCharsets.UTF_8));
+    StringBuilder hexString = new StringBuilder();
+    for (byte b : hashBytes) {
+      hexString.append(String.format("%02x", b));
+    }
+    return hexString.toString();
+  }
+
+  // Shaped like a New York Times section feed
+  private static String feed() {
+    StringBuilder xml = new StringBuilder("""
+        <?xml version="1.0" encoding="UTF-8"?>
+        <rss version="2.0" xmlns:dc="http://purl.org/dc/elements/1.1/" xmlns:media="http://search.yahoo.com/mrss/">
+          <channel>
+            <title>NYT &gt; Technology</title>
+        """);
+    for (int i = 0; i < ITEMS; i++) {
+      xml.append("""
+              <item>
+                <title>Chip Makers Race to Build Data Centers for A.I. %1$d</title>
+                <link>https://www.nytimes.com/2024/05/01/technology/ai-chips-data-centers-%1$d.html</link>
+                <guid isPermaLink="true">https://www.nytimes.com/2024/05/01/technology/ai-chips-data-centers-%1$d.html</guid>
+                <description>Companies are spending billions on new facilities as demand for computing power grows, and utilities are struggling to keep up.</description>
+                <dc:creator>Jane Doe and John Roe</dc:creator>
+                <pubDate>Wed, 01 May 2024 12:30:00 +0000</pubDate>
+                <category domain="http://www.nytimes.com/namespaces/keywords/des">Artificial Intelligence</category>
+                <category domain="http://www.nytimes.com/namespaces/keywords/des">Data Centers</category>
+                <category domain="http://www.nytimes.com/namespaces/keywords/nyt_org">Nvidia Corporation</category>
+                <media:content height="1350" medium="image" url="https://static01.nyt.com/images/2024/05/01/multimedia/chips-%1$d.jpg" width="1800"/>
+              </item>
+          """.formatted(i));
+    }
+    return xml.append("  </channel>\n</rss>\n").toString();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(ItemMappingBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build())
+        .run();
+  }
+}
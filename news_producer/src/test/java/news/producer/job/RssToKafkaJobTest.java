@@ -1,42 +1,61 @@
 package news.producer.job;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.rometools.rome.feed.synd.SyndContent;
-import com.rometools.rome.feed.synd.SyndContentImpl;
-import com.rometools.rome.feed.synd.SyndEntry;
-import com.rometools.rome.feed.synd.SyndEntryImpl;
-import com.rometools.rome.feed.synd.SyndFeed;
-import com.rometools.rome.feed.synd.SyndFeedImpl;
-import com.rometools.rome.io.SyndFeedInput;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+import news.model.NewsArticle;
+import news.model.codec.ArticleCodec;
+import news.producer.dedup.GuidFilter;
+import news.producer.entity.FeedCache;
+import news.producer.entity.ProcessedGuid;
+import news.producer.feed.Feed;
+import news.producer.parser.ArticleId;
 import news.producer.parser.RssItemProcessor;
+import news.producer.repository.FeedCacheRepository;
 import news.producer.repository.ProcessedGuidRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.*;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
 import org.springframework.test.util.ReflectionTestUtils;
-import org.springframework.util.concurrent.ListenableFuture;
 import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.http.HttpHeaders;
-
-import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.Date;
-import java.util.List;
-import java.util.Map;
-import org.xml.sax.InputSource;
 
+import static news.producer.parser.RssItemProcessor.convertToId;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -47,216 +66,400 @@ public class RssToKafkaJobTest {
   private RestTemplate restTemplate;
 
   @Mock
-  private KafkaTemplate<String, String> kafkaTemplate;
+  private KafkaTemplate<String, byte[]> kafkaTemplate;
 
   @Mock
   private ProcessedGuidRepository processedGuidRepository;
 
+  @Mock
+  private FeedCacheRepository feedCacheRepository;
+
+  @Mock
+  private GuidFilter guidFilter;
+
+  @Spy
+  private ArticleCodec articleCodec = new ArticleCodec(ArticleCodec.Format.JSON);
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Spy
+  private FetchMetrics fetchMetrics = new FetchMetrics(meterRegistry);
+
   @InjectMocks
   private RssToKafkaJob rssToKafkaJob;
 
   @Captor
-  private ArgumentCaptor<String> topicCaptor;
+  private ArgumentCaptor<byte[]> valueCaptor;
 
-  @Captor
-  private ArgumentCaptor<String> keyCaptor;
+  private static final String RSS_URL = "https://example.com/rss";
+  private static final String KAFKA_TOPIC = "news-topic";
+  private static final String CHARSET = "UTF-8";
+  private static final Instant NOW = Instant.parse("2024-05-01T12:00:00Z");
+  private static final Duration TTL = Duration.ofDays(14);
+  private static final Feed FEED = new Feed("test", RSS_URL, KAFKA_TOPIC, CHARSET, Duration.ofMinutes(1));
 
-  @Captor
-  private ArgumentCaptor<String> valueCaptor;
-
-  private final String RSS_URL = "https://example.com/rss";
-  private final String KAFKA_TOPIC = "news-topic";
-  private final String CHARSET = "UTF-8";
+  private static final String TWO_ITEMS = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><rss version=\"2.0\"><channel><item><title>Article 1</title><guid>id1</guid></item><item><title>Article 2</title><guid>id2</guid></item></channel></rss>";
 
   @BeforeEach
   void setUp() {
-    ReflectionTestUtils.setField(rssToKafkaJob, "rssUrl", RSS_URL);
-    ReflectionTestUtils.setField(rssToKafkaJob, "kafkaTopic", KAFKA_TOPIC);
-    ReflectionTestUtils.setField(rssToKafkaJob, "charset", CHARSET);
+    // Unless a test says otherwise the filter cannot rule out any GUID
+    lenient().when(guidFilter.mightContain(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+    ReflectionTestUtils.setField(rssToKafkaJob, "clock", Clock.fixed(NOW, ZoneOffset.UTC));
+  }
+
+  // A processed GUID as saved by a fetch at NOW
+  private static ProcessedGuid processed(String guid) {
+    return ProcessedGuid.of(convertToId(guid), NOW.plus(TTL));
+  }
+
+  private static List<byte[]> keys(String... guids) {
+    List<String> expected = Stream.of(guids).map(RssItemProcessor::convertToId).toList();
+    return argThat(keys -> keys.stream().map(HexFormat.of()::formatHex).toList().equals(expected));
+  }
+
+  // Answers the feed request through the job's own callback and extractor, returns the request headers sent
+  private HttpHeaders respondWith(HttpStatus status, byte[] body, HttpHeaders headers) {
+    HttpHeaders requestHeaders = new HttpHeaders();
+    when(restTemplate.execute(eq(RSS_URL), eq(HttpMethod.GET), any(RequestCallback.class),
+        ArgumentMatchers.<ResponseExtractor<Object>>any()))
+        .thenAnswer(invocation -> {
+          MockClientHttpRequest request = new MockClientHttpRequest();
+          invocation.<RequestCallback>getArgument(2).doWithRequest(request);
+          requestHeaders.addAll(request.getHeaders());
+          MockClientHttpResponse response = new MockClientHttpResponse(body, status);
+          response.getHeaders().addAll(headers);
+          return invocation.<ResponseExtractor<?>>getArgument(3).extractData(response);
+        });
+    return requestHeaders;
+  }
+
+  private void acknowledgeSends() {
+    when(kafkaTemplate.send(eq(KAFKA_TOPIC), anyString(), any(byte[].class)))
+        .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
   }
 
   @Test
   void shouldHandleCharsetFromResponseHeaders() throws Exception {
     // Given
-    String rssFeedXml = "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?><rss version=\"2.0\"><channel><item><title>Test Title</title><link>http://example.com/article</link><description>Test Description</description><guid>123456</guid><pubDate>Thu, 01 Jan 2023 12:00:00 GMT</pubDate></item></channel></rss>";
-    byte[] responseBody = rssFeedXml.getBytes(StandardCharsets.ISO_8859_1);
-
+    String rssFeedXml = "<rss version=\"2.0\"><channel><item><title>Café</title><guid>123456</guid></item></channel></rss>";
     HttpHeaders headers = new HttpHeaders();
     headers.setContentType(new MediaType("application", "xml", StandardCharsets.ISO_8859_1));
+    respondWith(HttpStatus.OK, rssFeedXml.getBytes(StandardCharsets.ISO_8859_1), headers);
+    acknowledgeSends();
 
-    ResponseEntity<byte[]> responseEntity = new ResponseEntity<>(responseBody, headers, HttpStatus.OK);
+    // When
+    rssToKafkaJob.fetch(FEED);
 
-    when(restTemplate.exchange(
-        eq(RSS_URL),
-        eq(HttpMethod.GET),
-        isNull(),
-        eq(byte[].class)
-    )).thenReturn(responseEntity);
+    // Then
+    verify(kafkaTemplate).send(eq(KAFKA_TOPIC), eq(convertToId("123456")), valueCaptor.capture());
+    assertEquals("Café", articleCodec.decode(valueCaptor.getValue()).getTitle());
+  }
 
-    // Mock processedGuidRepository
-    when(processedGuidRepository.existsById(anyString())).thenReturn(false);
+  @Test
+  void shouldHandleMultipleRssEntries() throws Exception {
+    // Given
+    HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(MediaType.APPLICATION_XML);
+    respondWith(HttpStatus.OK, TWO_ITEMS.getBytes(StandardCharsets.UTF_8), headers);
+    acknowledgeSends();
 
-    // Create a spy on the job
-    RssToKafkaJob spyJob = spy(rssToKafkaJob);
+    // When
+    rssToKafkaJob.fetch(FEED);
 
-    // Create a mock SyndFeed
-    SyndFeed syndFeed = mock(SyndFeed.class);
-    SyndEntry entry = mock(SyndEntry.class);
+    // Then
+    verify(kafkaTemplate, times(2)).send(eq(KAFKA_TOPIC), anyString(), any(byte[].class));
+    verify(processedGuidRepository).saveAll(
+        List.of(processed("id1"), processed("id2")));
+  }
 
-    List<SyndEntry> entries = new ArrayList<>();
-    entries.add(entry);
-    when(syndFeed.getEntries()).thenReturn(entries);
+  @Test
+  void shouldRecordEachBatchBeforeReadingTheRest() {
+    // Given
+    ReflectionTestUtils.setField(rssToKafkaJob, "dedupBatchSize", 1);
+    String truncated = "<rss version=\"2.0\"><channel><item><title>Article 1</title><guid>id1</guid></item><item><title>Art";
+    respondWith(HttpStatus.OK, truncated.getBytes(StandardCharsets.UTF_8), new HttpHeaders());
+    acknowledgeSends();
 
-    // Override the parseFeed method
-    doReturn(syndFeed).when(spyJob).parseFeed(any(byte[].class), anyString());
+    // When
+    assertThrows(IOException.class, () -> rssToKafkaJob.fetch(FEED));
 
-    // Mock RssItemProcessor
-    try (MockedStatic<RssItemProcessor> mockedProcessor = mockStatic(RssItemProcessor.class)) {
-      Map<String, Object> processedItem = Map.of(
-          "guid", "123456",
-          "title", "Test Title"
-      );
+    // Then, the article sent before the feed broke off is not sent again by the next fetch
+    verify(kafkaTemplate).send(eq(KAFKA_TOPIC), eq(convertToId("id1")), any(byte[].class));
+    verify(processedGuidRepository).saveAll(List.of(processed("id1")));
+    verify(guidFilter).put(List.of(convertToId("id1")));
+    verify(feedCacheRepository, never()).save(any());
+  }
 
-      mockedProcessor.when(() -> RssItemProcessor.processRssItem(any(SyndEntry.class)))
-          .thenReturn(processedItem);
+  @Test
+  void shouldRecordSendsAlreadyIssuedWhenABatchFails() throws Exception {
+    // Given
+    String rssFeedXml = "<rss version=\"2.0\"><channel><item><guid>id1</guid></item><item><guid>id2</guid></item></channel></rss>";
+    respondWith(HttpStatus.OK, rssFeedXml.getBytes(StandardCharsets.UTF_8), new HttpHeaders());
+    acknowledgeSends();
+    AtomicInteger encoded = new AtomicInteger();
+    doAnswer(invocation -> {
+      if (encoded.incrementAndGet() == 2) {
+        throw new IOException("Encoding failed");
+      }
+      return invocation.callRealMethod();
+    }).when(articleCodec).encode(any(NewsArticle.class));
 
-      // Mock the send method
-      CompletableFuture<SendResult<String, String>> future = CompletableFuture.completedFuture(mock(SendResult.class));
-      when(kafkaTemplate.send(anyString(), anyString(), anyString())).thenReturn(future);
+    // When
+    assertThrows(IOException.class, () -> rssToKafkaJob.fetch(FEED));
+
+    // Then
+    verify(kafkaTemplate, times(1)).send(anyString(), anyString(), any(byte[].class));
+    verify(processedGuidRepository).saveAll(List.of(processed("id1")));
+  }
 
-      // When
-      spyJob.fetchRssAndSendKafka();
+  @Test
+  void shouldCheckAllItemsWithOneQuery() throws Exception {
+    // Given
+    String rssFeedXml = "<rss version=\"2.0\"><channel><item><guid>id1</guid></item><item><guid>id2</guid></item><item><guid>id3</guid></item></channel></rss>";
+    respondWith(HttpStatus.OK, rssFeedXml.getBytes(StandardCharsets.UTF_8), new HttpHeaders());
+    when(processedGuidRepository.findAllById(anyIterable()))
+        .thenReturn(List.of(processed("id2")));
+    acknowledgeSends();
 
-      // Then
-      verify(restTemplate).exchange(eq(RSS_URL), eq(HttpMethod.GET), isNull(), eq(byte[].class));
-      verify(kafkaTemplate).send(anyString(), anyString(), anyString());
+    // When
+    rssToKafkaJob.fetch(FEED);
 
-      // Verify charset was updated from headers
-      assertEquals("ISO-8859-1", ReflectionTestUtils.getField(spyJob, "charset"));
-    }
+    // Then
+    verify(processedGuidRepository).findAllById(keys("id1", "id2", "id3"));
+    verify(processedGuidRepository, never()).existsById(any());
+    verify(kafkaTemplate).send(eq(KAFKA_TOPIC), eq(convertToId("id1")), any(byte[].class));
+    verify(kafkaTemplate).send(eq(KAFKA_TOPIC), eq(convertToId("id3")), any(byte[].class));
+    verify(kafkaTemplate, never()).send(eq(KAFKA_TOPIC), eq(convertToId("id2")), any(byte[].class));
+    verify(processedGuidRepository).saveAll(
+        List.of(processed("id1"), processed("id3")));
   }
 
   @Test
-  void shouldHandleMultipleRssEntries() throws Exception {
+  void shouldNotQueryGuidsTheFilterRulesOut() throws Exception {
     // Given
-    String rssFeedXml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><rss version=\"2.0\"><channel><item><title>Article 1</title><guid>id1</guid></item><item><title>Article 2</title><guid>id2</guid></item></channel></rss>";
-    byte[] responseBody = rssFeedXml.getBytes(StandardCharsets.UTF_8);
+    respondWith(HttpStatus.OK, TWO_ITEMS.getBytes(StandardCharsets.UTF_8), new HttpHeaders());
+    when(guidFilter.mightContain(anyList())).thenReturn(List.of());
+    acknowledgeSends();
 
-    HttpHeaders headers = new HttpHeaders();
-    headers.setContentType(MediaType.APPLICATION_XML);
+    // When
+    rssToKafkaJob.fetch(FEED);
 
-    ResponseEntity<byte[]> responseEntity = new ResponseEntity<>(responseBody, headers, HttpStatus.OK);
+    // Then
+    verify(processedGuidRepository, never()).findAllById(anyIterable());
+    verify(kafkaTemplate, times(2)).send(eq(KAFKA_TOPIC), anyString(), any(byte[].class));
+    verify(guidFilter).put(List.of(convertToId("id1"), convertToId("id2")));
+  }
 
-    when(restTemplate.exchange(
-        eq(RSS_URL),
-        eq(HttpMethod.GET),
-        isNull(),
-        eq(byte[].class)
-    )).thenReturn(responseEntity);
+  @Test
+  void shouldRenewProcessedGuidsPastHalfTheirTtl() throws Exception {
+    // Given
+    respondWith(HttpStatus.OK, TWO_ITEMS.getBytes(StandardCharsets.UTF_8), new HttpHeaders());
+    when(processedGuidRepository.findAllById(anyIterable())).thenReturn(List.of(
+        ProcessedGuid.of(convertToId("id1"), NOW.plus(Duration.ofDays(1))),
+        ProcessedGuid.of(convertToId("id2"), NOW.plus(Duration.ofDays(10)))));
 
-    // Mock RssItemProcessor
-    MockedStatic<RssItemProcessor> mockedProcessor = mockStatic(RssItemProcessor.class);
+    // When
+    rssToKafkaJob.fetch(FEED);
 
-    Map<String, Object> processedItem1 = Map.of("guid", "id1", "title", "Article 1");
-    Map<String, Object> processedItem2 = Map.of("guid", "id2", "title", "Article 2");
+    // Then
+    verify(processedGuidRepository).updateExpireAt(keys("id1"), eq(NOW.plus(TTL)));
+    verifyNoInteractions(kafkaTemplate);
+  }
+
+  @Test
+  void shouldNotResendItemsProcessedUnderTheOtherIdFormat() throws Exception {
+    // Given
+    ReflectionTestUtils.setField(rssToKafkaJob, "idFormat", ArticleId.Format.BASE64URL);
+    respondWith(HttpStatus.OK, TWO_ITEMS.getBytes(StandardCharsets.UTF_8), new HttpHeaders());
+    // id1 was processed while ids were hex
+    when(processedGuidRepository.findAllById(anyIterable())).thenReturn(List.of(processed("id1")));
+    acknowledgeSends();
 
-    mockedProcessor.when(() -> RssItemProcessor.processRssItem(argThat(entry ->
-            ((SyndEntry)entry).getTitle().equals("Article 1"))))
-        .thenReturn(processedItem1);
+    // When
+    rssToKafkaJob.fetch(FEED);
 
-    mockedProcessor.when(() -> RssItemProcessor.processRssItem(argThat(entry ->
-            ((SyndEntry)entry).getTitle().equals("Article 2"))))
-        .thenReturn(processedItem2);
+    // Then
+    String id2 = ArticleId.of("id2", ArticleId.Format.BASE64URL);
+    verify(kafkaTemplate).send(eq(KAFKA_TOPIC), eq(id2), any(byte[].class));
+    verify(kafkaTemplate, times(1)).send(anyString(), anyString(), any(byte[].class));
+    verify(processedGuidRepository).saveAll(List.of(processed("id2")));
+    verify(guidFilter).put(List.of(convertToId("id2")));
+  }
+
+  @Test
+  void shouldSendNothingWhenAllItemsWereProcessed() throws Exception {
+    // Given
+    respondWith(HttpStatus.OK, TWO_ITEMS.getBytes(StandardCharsets.UTF_8), new HttpHeaders());
+    when(processedGuidRepository.findAllById(anyIterable()))
+        .thenReturn(List.of(processed("id1"), processed("id2")));
 
     // When
-    rssToKafkaJob.fetchRssAndSendKafka();
+    rssToKafkaJob.fetch(FEED);
 
     // Then
-    verify(restTemplate).exchange(eq(RSS_URL), eq(HttpMethod.GET), isNull(), eq(byte[].class));
-    verify(kafkaTemplate, times(2)).send(anyString(), anyString(), anyString());
+    verify(processedGuidRepository).findAllById(anyIterable());
+    verify(processedGuidRepository, never()).saveAll(anyIterable());
+    verifyNoInteractions(kafkaTemplate);
+  }
+
+  @Test
+  void shouldSendRepeatedGuidOnce() throws Exception {
+    // Given
+    String rssFeedXml = "<rss version=\"2.0\"><channel><item><title>First</title><guid>id1</guid></item><item><title>Again</title><guid>id1</guid></item></channel></rss>";
+    respondWith(HttpStatus.OK, rssFeedXml.getBytes(StandardCharsets.UTF_8), new HttpHeaders());
+    acknowledgeSends();
 
-    mockedProcessor.close();
+    // When
+    rssToKafkaJob.fetch(FEED);
+
+    // Then
+    verify(processedGuidRepository).findAllById(keys("id1"));
+    verify(kafkaTemplate).send(eq(KAFKA_TOPIC), eq(convertToId("id1")), valueCaptor.capture());
+    assertEquals("First", articleCodec.decode(valueCaptor.getValue()).getTitle());
   }
 
   @Test
-  void shouldHandleRestTemplateException() {
+  void shouldNotQueryForEmptyFeed() throws Exception {
     // Given
-    when(restTemplate.exchange(
-        eq(RSS_URL),
-        eq(HttpMethod.GET),
-        isNull(),
-        eq(byte[].class)
-    )).thenThrow(new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR));
+    respondWith(HttpStatus.OK, "<rss version=\"2.0\"><channel></channel></rss>".getBytes(StandardCharsets.UTF_8),
+        new HttpHeaders());
 
     // When
-    rssToKafkaJob.fetchRssAndSendKafka();
+    rssToKafkaJob.fetch(FEED);
 
     // Then
-    verify(restTemplate).exchange(eq(RSS_URL), eq(HttpMethod.GET), isNull(), eq(byte[].class));
-    verify(kafkaTemplate, never()).send(anyString(), anyString(), anyString());
+    verifyNoInteractions(processedGuidRepository, kafkaTemplate);
   }
 
   @Test
-  void shouldHandleRssParsingException() throws Exception {
+  void shouldQueryOncePerBatchForLargeFeeds() throws Exception {
     // Given
-    String invalidRssFeedXml = "This is not valid XML";
-    byte[] responseBody = invalidRssFeedXml.getBytes(StandardCharsets.UTF_8);
+    ReflectionTestUtils.setField(rssToKafkaJob, "dedupBatchSize", 2);
+    String rssFeedXml = "<rss version=\"2.0\"><channel><item><guid>id1</guid></item><item><guid>id2</guid></item><item><guid>id3</guid></item></channel></rss>";
+    respondWith(HttpStatus.OK, rssFeedXml.getBytes(StandardCharsets.UTF_8), new HttpHeaders());
+    acknowledgeSends();
 
-    HttpHeaders headers = new HttpHeaders();
-    headers.setContentType(MediaType.APPLICATION_XML);
+    // When
+    rssToKafkaJob.fetch(FEED);
 
-    ResponseEntity<byte[]> responseEntity = new ResponseEntity<>(responseBody, headers, HttpStatus.OK);
+    // Then
+    InOrder inOrder = inOrder(processedGuidRepository, kafkaTemplate);
+    inOrder.verify(processedGuidRepository).findAllById(keys("id1", "id2"));
+    inOrder.verify(kafkaTemplate, times(2)).send(eq(KAFKA_TOPIC), anyString(), any(byte[].class));
+    inOrder.verify(processedGuidRepository).findAllById(keys("id3"));
+    inOrder.verify(kafkaTemplate).send(eq(KAFKA_TOPIC), eq(convertToId("id3")), any(byte[].class));
+  }
 
-    when(restTemplate.exchange(
-        eq(RSS_URL),
-        eq(HttpMethod.GET),
-        isNull(),
-        eq(byte[].class)
-    )).thenReturn(responseEntity);
+  @Test
+  void shouldOnlyRecordGuidsKafkaAcknowledged() throws Exception {
+    // Given
+    respondWith(HttpStatus.OK, TWO_ITEMS.getBytes(StandardCharsets.UTF_8), new HttpHeaders());
+    when(kafkaTemplate.send(eq(KAFKA_TOPIC), eq(convertToId("id1")), any(byte[].class)))
+        .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+    when(kafkaTemplate.send(eq(KAFKA_TOPIC), eq(convertToId("id2")), any(byte[].class)))
+        .thenReturn(CompletableFuture.failedFuture(new TimeoutException("Expiring 1 record(s)")));
 
     // When
-    rssToKafkaJob.fetchRssAndSendKafka();
+    rssToKafkaJob.fetch(FEED);
 
     // Then
-    verify(restTemplate).exchange(eq(RSS_URL), eq(HttpMethod.GET), isNull(), eq(byte[].class));
-    verify(kafkaTemplate, never()).send(anyString(), anyString(), anyString());
+    verify(processedGuidRepository).saveAll(List.of(processed("id1")));
+    // Other feeds share the producer, their sends are left to linger
+    verify(kafkaTemplate, never()).flush();
+    assertEquals(1, meterRegistry.get("news.producer.articles").tags("feed", "test", "outcome", "sent").counter().count());
+    assertEquals(1, meterRegistry.get("news.producer.articles").tags("feed", "test", "outcome", "failed").counter().count());
+    assertEquals(1, meterRegistry.get("news.producer.send.latency").tag("feed", "test").timer().count());
+    assertTrue(meterRegistry.get("news.producer.bytes.sent").tag("feed", "test").summary().totalAmount() > 0);
+    verify(feedCacheRepository, never()).save(any());
   }
 
   @Test
-  void shouldHandleKafkaException() throws Exception {
+  void shouldSkipParsingWhenFeedNotModified() throws Exception {
     // Given
-    String rssFeedXml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><rss version=\"2.0\"><channel><item><title>Test Title</title><guid>123456</guid></item></channel></rss>";
-    byte[] responseBody = rssFeedXml.getBytes(StandardCharsets.UTF_8);
+    when(feedCacheRepository.findById("test"))
+        .thenReturn(Optional.of(new FeedCache("test", RSS_URL, "\"v1\"", "Thu, 01 Jan 2023 12:00:00 GMT")));
+    HttpHeaders requestHeaders = respondWith(HttpStatus.NOT_MODIFIED, new byte[0], new HttpHeaders());
+
+    // When
+    rssToKafkaJob.fetch(FEED);
+
+    // Then
+    assertEquals("\"v1\"", requestHeaders.getFirst(HttpHeaders.IF_NONE_MATCH));
+    assertEquals("Thu, 01 Jan 2023 12:00:00 GMT", requestHeaders.getFirst(HttpHeaders.IF_MODIFIED_SINCE));
+    assertEquals("gzip", requestHeaders.getFirst(HttpHeaders.ACCEPT_ENCODING));
+    verifyNoInteractions(kafkaTemplate, processedGuidRepository);
+    verify(feedCacheRepository, never()).save(any());
+    assertEquals(1, meterRegistry.get("news.producer.fetches").tag("outcome", "not_modified").counter().count());
+    assertTrue(meterRegistry.find("news.producer.parses").counters().isEmpty());
+  }
 
+  @Test
+  void shouldDecodeGzipBodyAndStoreValidators() throws Exception {
+    // Given
+    String rssFeedXml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><rss version=\"2.0\"><channel><item><title>Article 1</title><guid>id1</guid></item></channel></rss>";
+    ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+    try (GZIPOutputStream out = new GZIPOutputStream(gzipped)) {
+      out.write(rssFeedXml.getBytes(StandardCharsets.UTF_8));
+    }
     HttpHeaders headers = new HttpHeaders();
-    headers.setContentType(MediaType.APPLICATION_XML);
+    headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+    headers.setETag("\"v2\"");
+    respondWith(HttpStatus.OK, gzipped.toByteArray(), headers);
+    acknowledgeSends();
 
-    ResponseEntity<byte[]> responseEntity = new ResponseEntity<>(responseBody, headers, HttpStatus.OK);
+    // When
+    rssToKafkaJob.fetch(FEED);
 
-    when(restTemplate.exchange(
-        eq(RSS_URL),
-        eq(HttpMethod.GET),
-        isNull(),
-        eq(byte[].class)
-    )).thenReturn(responseEntity);
+    // Then
+    verify(kafkaTemplate).send(eq(KAFKA_TOPIC), eq(convertToId("id1")), any(byte[].class));
+    verify(feedCacheRepository).save(new FeedCache("test", RSS_URL, "\"v2\"", null));
+    assertEquals(1, meterRegistry.get("news.producer.fetches").tag("outcome", "modified").counter().count());
+    assertEquals(1, meterRegistry.get("news.producer.parses").counter().count());
+    assertEquals(gzipped.size(), meterRegistry.get("news.producer.bytes.fetched").summary().totalAmount());
+  }
 
-    // Mock RssItemProcessor
-    MockedStatic<RssItemProcessor> mockedProcessor = mockStatic(RssItemProcessor.class);
-    Map<String, Object> processedItem = Map.of("guid", "123456", "title", "Test Title");
+  @Test
+  void shouldPropagateRestTemplateException() {
+    // Given
+    when(restTemplate.execute(eq(RSS_URL), eq(HttpMethod.GET), any(RequestCallback.class),
+        ArgumentMatchers.<ResponseExtractor<Object>>any()))
+        .thenThrow(new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR));
 
-    mockedProcessor.when(() -> RssItemProcessor.processRssItem(any(SyndEntry.class)))
-        .thenReturn(processedItem);
+    // When
+    assertThrows(HttpServerErrorException.class, () -> rssToKafkaJob.fetch(FEED));
 
-    when(kafkaTemplate.send(anyString(), anyString(), anyString()))
-        .thenThrow(new RuntimeException("Kafka error"));
+    // Then
+    verify(kafkaTemplate, never()).send(anyString(), anyString(), any(byte[].class));
+  }
+
+  @Test
+  void shouldPropagateRssParsingException() {
+    // Given
+    HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(MediaType.APPLICATION_XML);
+    respondWith(HttpStatus.OK, "This is not valid XML".getBytes(StandardCharsets.UTF_8), headers);
 
     // When
-    rssToKafkaJob.fetchRssAndSendKafka();
+    assertThrows(IOException.class, () -> rssToKafkaJob.fetch(FEED));
 
     // Then
-    verify(restTemplate).exchange(eq(RSS_URL), eq(HttpMethod.GET), isNull(), eq(byte[].class));
-    verify(kafkaTemplate).send(anyString(), anyString(), anyString());
+    verify(kafkaTemplate, never()).send(anyString(), anyString(), any(byte[].class));
+  }
 
-    mockedProcessor.close();
+  @Test
+  void shouldHandleKafkaException() throws Exception {
+    // Given
+    String rssFeedXml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><rss version=\"2.0\"><channel><item><title>Test Title</title><guid>123456</guid></item></channel></rss>";
+    respondWith(HttpStatus.OK, rssFeedXml.getBytes(StandardCharsets.UTF_8), new HttpHeaders());
+    when(kafkaTemplate.send(anyString(), anyString(), any(byte[].class)))
+        .thenThrow(new RuntimeException("Kafka error"));
+
+    // When
+    rssToKafkaJob.fetch(FEED);
+
+    // Then
+    verify(kafkaTemplate).send(anyString(), anyString(), any(byte[].class));
+    verify(processedGuidRepository).saveAll(List.of());
+    verify(feedCacheRepository, never()).save(any());
   }
 }
@@ -0,0 +1,50 @@
+package news.producer.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ArticleIdTest {
+
+  @Test
+  void shouldWriteHexIdsAsBefore() throws Exception {
+    // Given
+    String uri = "https://example.com/ünïcode?q=1";
+    byte[] sha256 = MessageDigest.getInstance("SHA-256").digest(uri.getBytes(StandardCharsets.UTF_8));
+
+    // When
+    String first = ArticleId.of(uri, ArticleId.Format.HEX);
+    String second = ArticleId.of(uri, ArticleId.Format.HEX);
+
+    // Then
+    assertEquals(HexFormat.of().formatHex(sha256), first);
+    assertEquals(first, second);
+  }
+
+  @Test
+  void shouldDecodeBothFormatsToTheSameBytes() {
+    // Given
+    String uri = "https://example.com/abc";
+
+    // When
+    String hex = ArticleId.of(uri, ArticleId.Format.HEX);
+    String base64url = ArticleId.of(uri, ArticleId.Format.BASE64URL);
+
+    // Then
+    assertEquals(43, base64url.length());
+    assertArrayEquals(ArticleId.decode(hex), ArticleId.decode(base64url));
+    assertEquals(hex, ArticleId.toHex(base64url));
+    assertEquals(hex, ArticleId.toHex(hex));
+  }
+
+  @Test
+  void shouldRejectOtherIds() {
+    assertThrows(IllegalArgumentException.class, () -> ArticleId.decode("123456"));
+  }
+}
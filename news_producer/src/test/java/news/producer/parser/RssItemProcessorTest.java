@@ -0,0 +1,64 @@
+package news.producer.parser;
+
+import com.rometools.rome.feed.synd.SyndCategoryImpl;
+import com.rometools.rome.feed.synd.SyndContentImpl;
+import com.rometools.rome.feed.synd.SyndEntry;
+import com.rometools.rome.feed.synd.SyndEntryImpl;
+import news.model.NewsArticle;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class RssItemProcessorTest {
+
+  @Test
+  void shouldMapEntryToArticle() {
+    // Given
+    LocalDateTime published = LocalDateTime.of(2024, 5, 1, 12, 30);
+    SyndEntry entry = new SyndEntryImpl();
+    entry.setUri("https://example.com/abc");
+    entry.setTitle("Title");
+    entry.setLink("https://example.com/abc.html");
+    SyndContentImpl description = new SyndContentImpl();
+    description.setValue("Description");
+    entry.setDescription(description);
+    entry.setAuthor("Jane Doe");
+    entry.setPublishedDate(Date.from(published.atZone(ZoneId.systemDefault()).toInstant()));
+    SyndCategoryImpl category = new SyndCategoryImpl();
+    category.setName("World");
+    entry.setCategories(List.of(category));
+
+    // When
+    NewsArticle article = RssItemProcessor.processRssItem(entry);
+
+    // Then
+    assertEquals(RssItemProcessor.convertToId("https://example.com/abc"), article.getId());
+    assertEquals("Title", article.getTitle());
+    assertEquals("https://example.com/abc.html", article.getLink());
+    assertEquals("Description", article.getContent());
+    assertEquals("Jane Doe", article.getCreator());
+    assertEquals(published, article.getPublishedAt());
+    assertEquals(List.of("World"), article.getCategories());
+    assertNull(article.getMedia());
+  }
+
+  @Test
+  void shouldLeaveMissingFieldsEmpty() {
+    // Given
+    SyndEntry entry = new SyndEntryImpl();
+    entry.setUri("https://example.com/abc");
+
+    // When
+    NewsArticle article = RssItemProcessor.processRssItem(entry);
+
+    // Then
+    assertNull(article.getContent());
+    assertNull(article.getPublishedAt());
+  }
+}
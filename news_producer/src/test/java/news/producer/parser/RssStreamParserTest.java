@@ -0,0 +1,171 @@
+package news.producer.parser;
+
+import com.rometools.rome.feed.synd.SyndEntry;
+import news.model.Media;
+import news.model.NewsArticle;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class RssStreamParserTest {
+
+  private static List<SyndEntry> parse(String xml) throws Exception {
+    List<SyndEntry> entries = new ArrayList<>();
+    RssStreamParser.parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), "UTF-8", entries::add);
+    return entries;
+  }
+
+  private static LocalDateTime local(String isoInstant) {
+    return LocalDateTime.ofInstant(ZonedDateTime.parse(isoInstant).toInstant(), ZoneId.systemDefault());
+  }
+
+  @Test
+  void shouldReadRss2Items() throws Exception {
+    // Given
+    String xml = """
+        <?xml version="1.0" encoding="UTF-8"?>
+        <rss version="2.0" xmlns:dc="http://purl.org/dc/elements/1.1/" xmlns:media="http://search.yahoo.com/mrss/">
+          <channel>
+            <title>Technology</title>
+            <item>
+              <title>First</title>
+              <link>https://example.com/first.html</link>
+              <guid isPermaLink="true">https://example.com/first</guid>
+              <description><![CDATA[A <b>bold</b> start]]></description>
+              <dc:creator>Jane Doe</dc:creator>
+              <pubDate>Wed, 01 May 2024 12:30:00 +0000</pubDate>
+              <category domain="nyt_des">Artificial Intelligence</category>
+              <category>Technology</category>
+              <media:content height="1350" medium="image" url="https://example.com/first.jpg" width="1800"/>
+            </item>
+            <item>
+              <title>Second</title>
+              <link>https://example.com/second.html</link>
+            </item>
+          </channel>
+        </rss>
+        """;
+
+    // When
+    List<SyndEntry> entries = parse(xml);
+
+    // Then
+    assertEquals(2, entries.size());
+    NewsArticle first = RssItemProcessor.processRssItem(entries.get(0));
+    assertEquals(RssItemProcessor.convertToId("https://example.com/first"), first.getId());
+    assertEquals("First", first.getTitle());
+    assertEquals("https://example.com/first.html", first.getLink());
+    assertEquals("A <b>bold</b> start", first.getContent());
+    assertEquals("Jane Doe", first.getCreator());
+    assertEquals(local("2024-05-01T12:30:00Z"), first.getPublishedAt());
+    assertEquals(List.of("Artificial Intelligence", "Technology"), first.getCategories());
+    assertEquals(new Media(1800, "https://example.com/first.jpg", 1350), first.getMedia());
+
+    // Without a guid the link identifies the item
+    NewsArticle second = RssItemProcessor.processRssItem(entries.get(1));
+    assertEquals(RssItemProcessor.convertToId("https://example.com/second.html"), second.getId());
+    assertNull(second.getMedia());
+  }
+
+  @Test
+  void shouldIgnoreExtensionElementsWithRssNames() throws Exception {
+    // Given
+    String xml = """
+        <rss version="2.0" xmlns:itunes="http://www.itunes.com/dtds/podcast-1.0.dtd" xmlns:atom="http://www.w3.org/2005/Atom">
+          <channel>
+            <item>
+              <title>Episode</title>
+              <link>https://example.com/episode.html</link>
+              <atom:link href="https://example.com/feed.xml" rel="self"/>
+              <author>editor@example.com (Jane Doe)</author>
+              <itunes:author>Podcast Network</itunes:author>
+              <category>Technology</category>
+              <itunes:category text="Technology"/>
+              <itunes:title>Episode, for iTunes</itunes:title>
+            </item>
+          </channel>
+        </rss>
+        """;
+
+    // When
+    List<SyndEntry> entries = parse(xml);
+
+    // Then
+    assertEquals(1, entries.size());
+    NewsArticle article = RssItemProcessor.processRssItem(entries.get(0));
+    assertEquals("Episode", article.getTitle());
+    assertEquals("https://example.com/episode.html", article.getLink());
+    assertEquals(RssItemProcessor.convertToId("https://example.com/episode.html"), article.getId());
+    assertEquals("editor@example.com (Jane Doe)", entries.get(0).getAuthor());
+    assertEquals(List.of("Technology"), article.getCategories());
+  }
+
+  @Test
+  void shouldReadRss10Items() throws Exception {
+    // Given
+    String xml = """
+        <rdf:RDF xmlns:rdf="http://www.w3.org/1999/02/22-rdf-syntax-ns#" xmlns="http://purl.org/rss/1.0/">
+          <channel rdf:about="https://example.com/"><title>Feed</title></channel>
+          <item rdf:about="https://example.com/rdf.html">
+            <title>RDF item</title>
+            <link>https://example.com/rdf.html</link>
+            <description>Description</description>
+          </item>
+        </rdf:RDF>
+        """;
+
+    // When
+    List<SyndEntry> entries = parse(xml);
+
+    // Then
+    assertEquals(1, entries.size());
+    NewsArticle article = RssItemProcessor.processRssItem(entries.get(0));
+    assertEquals("RDF item", article.getTitle());
+    assertEquals("https://example.com/rdf.html", article.getLink());
+    assertEquals("Description", article.getContent());
+  }
+
+  @Test
+  void shouldReadAtomEntries() throws Exception {
+    // Given
+    String xml = """
+        <feed xmlns="http://www.w3.org/2005/Atom">
+          <title>Feed</title>
+          <entry>
+            <id>urn:uuid:1225c695</id>
+            <title>Atom entry</title>
+            <link rel="self" href="https://example.com/self"/>
+            <link href="https://example.com/atom.html"/>
+            <author><name>John Roe</name></author>
+            <updated>2024-05-02T08:00:00Z</updated>
+            <published>2024-05-01T08:00:00Z</published>
+            <category term="Science"/>
+            <summary>Summary</summary>
+          </entry>
+        </feed>
+        """;
+
+    // When
+    List<SyndEntry> entries = parse(xml);
+
+    // Then
+    assertEquals(1, entries.size());
+    NewsArticle article = RssItemProcessor.processRssItem(entries.get(0));
+    assertEquals(RssItemProcessor.convertToId("urn:uuid:1225c695"), article.getId());
+    assertEquals("Atom entry", article.getTitle());
+    assertEquals("https://example.com/atom.html", article.getLink());
+    assertEquals("John Roe", article.getCreator());
+    assertEquals(local("2024-05-01T08:00:00Z"), article.getPublishedAt());
+    assertEquals(List.of("Science"), article.getCategories());
+    assertEquals("Summary", article.getContent());
+  }
+}